@@ -0,0 +1,75 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * SudokuSolver doing backtracking on the bitmasks of a ConstraintEngine,
+ * always branching on the cell with the fewest candidates.
+ */
+public class BitmaskSolver implements SudokuSolver {
+    private final ConstraintEngine engine;
+    private final int[][] solution;
+    private Consumer<int[][]> listener;
+
+    // Copy each solution out of the engine and hand it to the listener
+    private final Runnable onSolution = new Runnable() {
+        @Override
+        public void run() {
+            engine.copyTo(solution);
+            if (listener != null) {
+                listener.accept(solution);
+            }
+        }
+    };
+
+    /** Constructor for the standard board of SudokuConstants */
+    public BitmaskSolver() {
+        this(SudokuConstants.SUBGRID_SIZE);
+    }
+
+    /** Constructor for a board made of subgridSize-by-subgridSize sub-grids */
+    public BitmaskSolver(int subgridSize) {
+        engine = new ConstraintEngine(subgridSize, new Random());
+        solution = new int[engine.size][engine.size];
+    }
+
+    @Override
+    public boolean solve(int[][] grid) {
+        listener = null;
+        if (!engine.load(grid) || engine.countSolutions(1, onSolution) == 0) {
+            return false;
+        }
+        for (int row = 0; row < engine.size; ++row) {
+            System.arraycopy(solution[row], 0, grid[row], 0, engine.size);
+        }
+        return true;
+    }
+
+    @Override
+    public int countSolutions(int[][] grid, int limit) {
+        if (!engine.load(grid)) {
+            return 0;
+        }
+        return engine.countSolutions(limit);
+    }
+
+    @Override
+    public int enumerate(int[][] grid, int limit, Consumer<int[][]> listener) {
+        if (!engine.load(grid)) {
+            return 0;
+        }
+        this.listener = listener;
+        int found = engine.countSolutions(limit, onSolution);
+        this.listener = null;
+        return found;
+    }
+}
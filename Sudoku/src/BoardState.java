@@ -0,0 +1,121 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.Arrays;
+
+/**
+ * The BoardState follows what is on the board while a game is played: the givens
+ * and the player's entries. It is updated in O(1) by set() on each input, so the
+ * game never rescans the board:
+ * - remaining counts the cells still to guess (empty or wrong),
+ * - each row, column and sub-grid counts how many times each digit appears in it.
+ *   A cell is in conflict when its digit appears twice in one of its units.
+ * The candidates used for hints are kept by the HintEngine, which counts only the
+ * correct entries.
+ */
+public class BoardState {
+    /** Size of the board and of a sub-grid, e.g., 9 and 3 */
+    final int size, subgridSize;
+
+    // The solution and the digit on the board (0 if empty) of each cell, row-major
+    private final int[] solution, entries;
+    private final boolean[] given;
+    // Occurrences of each digit in each unit, at [unit * size + digit - 1]. The units
+    //  are the rows first, then the columns, then the sub-grids
+    private final int[] counts;
+    private int remaining;
+
+    /** Constructor for a board made of subgridSize-by-subgridSize sub-grids */
+    public BoardState(int subgridSize) {
+        this.subgridSize = subgridSize;
+        this.size = subgridSize * subgridSize;
+        solution = new int[size * size];
+        entries = new int[size * size];
+        given = new boolean[size * size];
+        counts = new int[3 * size * size];
+    }
+
+    /** Reset the state to the start of the given puzzle: givens only */
+    public void load(Puzzle puzzle) {
+        Arrays.fill(counts, 0);
+        remaining = 0;
+        for (int row = 0; row < size; ++row) {
+            for (int col = 0; col < size; ++col) {
+                int cell = row * size + col;
+                solution[cell] = puzzle.numbers[row][col];
+                given[cell] = puzzle.isGiven[row][col];
+                entries[cell] = 0;
+                if (given[cell]) {
+                    set(row, col, solution[cell]);
+                } else {
+                    remaining++;
+                }
+            }
+        }
+    }
+
+    /** Put digit (0 to empty the cell) at (row, col), and update the state in O(1) */
+    public void set(int row, int col, int digit) {
+        int cell = row * size + col;
+        int old = entries[cell];
+        if (old == digit) {
+            return;
+        }
+        if (old != 0) {
+            count(row, col, old, -1);
+        }
+        if (digit != 0) {
+            count(row, col, digit, +1);
+        }
+        entries[cell] = digit;
+        if (!given[cell]) {
+            // Each player's cell is counted in remaining until it holds the solution
+            if (old == solution[cell]) {
+                remaining++;
+            } else if (digit == solution[cell]) {
+                remaining--;
+            }
+        }
+    }
+
+    // Add delta to the occurrences of digit in the three units of (row, col)
+    private void count(int row, int col, int digit, int delta) {
+        int box = (row / subgridSize) * subgridSize + col / subgridSize;
+        count(row, digit, delta);
+        count(size + col, digit, delta);
+        count(2 * size + box, digit, delta);
+    }
+
+    private void count(int unit, int digit, int delta) {
+        counts[unit * size + digit - 1] += delta;
+    }
+
+    /** Return the digit on the board at (row, col), 0 if empty */
+    public int get(int row, int col) {
+        return entries[row * size + col];
+    }
+
+    /** Return true if every cell holds its solution */
+    public boolean isSolved() {
+        return remaining == 0;
+    }
+
+    /** Return true if the digit at (row, col) appears again in one of its units */
+    public boolean isConflict(int row, int col) {
+        int digit = entries[row * size + col];
+        if (digit == 0) {
+            return false;
+        }
+        int box = (row / subgridSize) * subgridSize + col / subgridSize;
+        return counts[row * size + digit - 1] > 1
+                || counts[(size + col) * size + digit - 1] > 1
+                || counts[(2 * size + box) * size + digit - 1] > 1;
+    }
+}
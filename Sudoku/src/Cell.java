@@ -27,15 +27,19 @@ public class Cell extends JTextField {
     public static final Color BG_TO_GUESS  = Color.YELLOW;
     public static final Color BG_CORRECT_GUESS = new Color(0, 216, 0);
     public static final Color BG_WRONG_GUESS   = new Color(216, 0, 0);
+    public static final Color FG_CONFLICT = new Color(216, 0, 0);  // digit repeated in a unit
+    public static final Color FG_WRONG_GUESS = Color.WHITE;
     public static final Font FONT_NUMBERS = new Font("SansSerif", Font.BOLD, 28);
 
     // Define properties (package-visible)
-    /** The row and column number [0-8] of this cell */
+    /** The row and column number [0-8] of this cell (up to [0-24] on a 25x25 board) */
     int row, col;
-    /** The puzzle number [1-9] for this cell */
+    /** The puzzle number [1-9] for this cell (up to [1-25] on a 25x25 board) */
     int number;
     /** The status of this cell defined in enum CellStatus */
     CellStatus status;
+    /** True if the digit of this cell appears again in its row, column or sub-grid */
+    boolean conflict;
 
     /** Constructor */
     public Cell(int row, int col) {
@@ -51,6 +55,7 @@ public class Cell extends JTextField {
     public void newGame(int number, boolean isGiven) {
         this.number = number;
         status = isGiven ? CellStatus.GIVEN : CellStatus.TO_GUESS;
+        conflict = false;
         paint();    // paint itself
     }
 
@@ -73,5 +78,17 @@ public class Cell extends JTextField {
         } else if (status == CellStatus.WRONG_GUESS) {    // from TO_GUESS
             super.setBackground(BG_WRONG_GUESS);
         }
+        paintConflict();
+    }
+
+    /** Show whether the digit of this cell conflicts with another one in its units */
+    public void paintConflict() {
+        if (status == CellStatus.WRONG_GUESS) {
+            super.setForeground(FG_WRONG_GUESS);  // Red text would not show on red
+        } else if (conflict) {
+            super.setForeground(FG_CONFLICT);
+        } else {
+            super.setForeground(status == CellStatus.GIVEN ? FG_GIVEN : FG_NOT_GIVEN);
+        }
     }
 }
\ No newline at end of file
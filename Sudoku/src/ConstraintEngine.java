@@ -0,0 +1,417 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.Random;
+
+/**
+ * The ConstraintEngine keeps the Sudoku constraints as bitmasks, one per row,
+ * one per column and one per sub-grid. Bit (d - 1) of a mask is set when digit d
+ * is already used in that unit, so the candidates of a cell are simply the digits
+ * that are in none of its three masks.
+ *
+ * The masks are updated incrementally by place() and undo(), so checking a
+ * candidate is O(1) instead of rescanning the row, column and sub-grid.
+ * All the working arrays are allocated once in the constructor; filling a board
+ * does not allocate any object.
+ *
+ * The board size is given at construction (9x9, 16x16, 25x25, ...). The search
+ * used to fill and to count solutions first places every forced digit (naked and
+ * hidden singles), then branches on the empty cell with the fewest candidates
+ * (MRV), which keeps the larger boards interactive.
+ */
+public class ConstraintEngine {
+    // Fill attempts abandoned after this many branching nodes per cell are restarted
+    private static final int FILL_NODES_PER_CELL = 20;
+    private static final int MAX_FILL_ATTEMPTS = 1000;
+
+    // Define properties (package-visible)
+    /** Size of the board and of a sub-grid, e.g., 9 and 3 */
+    final int size, subgridSize;
+    /** Number of cells on the board (size * size) */
+    final int cellCount;
+    /** Mask with the lowest size bits set, i.e., all digits */
+    final int allDigits;
+    /** The digit in each cell in row-major order, 0 if empty */
+    final int[] cells;
+    /** Used-digit masks of each row, column and sub-grid */
+    final int[] rowMask, colMask, boxMask;
+
+    // Row, column and sub-grid index of each cell, precomputed once
+    private final int[] rowOf, colOf, boxOf;
+    // The cells of each unit: rows first, then columns, then sub-grids
+    private final int[][] unitCells;
+    // Set of the empty cells, with the position of each cell in the array
+    private final int[] empty, emptyIndex;
+    private int emptyCount;
+    // Cells placed by the search, so they can be undone back to a mark
+    private final int[] trail;
+    private int trailSize;
+    // Candidate order, one slice of size digits per search depth (or per cell)
+    private final int[] order;
+    private final Random rand;
+    // State of the xorshift generator used inside one fill, seeded from rand
+    private long seed;
+
+    // State of the running search
+    private boolean randomOrder;
+    private boolean keepSolution;
+    private long nodes, nodeBudget;
+    private Runnable onSolution;
+
+    /** Constructor for the standard board of SudokuConstants */
+    public ConstraintEngine(Random rand) {
+        this(SudokuConstants.SUBGRID_SIZE, rand);
+    }
+
+    /** Constructor for a board made of subgridSize-by-subgridSize sub-grids */
+    public ConstraintEngine(int subgridSize, Random rand) {
+        this.subgridSize = subgridSize;
+        this.size = subgridSize * subgridSize;
+        this.cellCount = size * size;
+        this.allDigits = (1 << size) - 1;
+        this.rand = rand;
+
+        cells = new int[cellCount];
+        rowMask = new int[size];
+        colMask = new int[size];
+        boxMask = new int[size];
+        rowOf = new int[cellCount];
+        colOf = new int[cellCount];
+        boxOf = new int[cellCount];
+        unitCells = new int[3 * size][size];
+        empty = new int[cellCount];
+        emptyIndex = new int[cellCount];
+        trail = new int[cellCount];
+        order = new int[cellCount * size];
+        int[] filled = new int[3 * size];
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int row = cell / size;
+            int col = cell % size;
+            int box = (row / subgridSize) * subgridSize + col / subgridSize;
+            rowOf[cell] = row;
+            colOf[cell] = col;
+            boxOf[cell] = box;
+            unitCells[row][filled[row]++] = cell;
+            unitCells[size + col][filled[size + col]++] = cell;
+            unitCells[2 * size + box][filled[2 * size + box]++] = cell;
+        }
+        clear();
+    }
+
+    /** Empty the board */
+    public void clear() {
+        for (int cell = 0; cell < cellCount; ++cell) {
+            cells[cell] = 0;
+            empty[cell] = cell;
+            emptyIndex[cell] = cell;
+        }
+        emptyCount = cellCount;
+        trailSize = 0;
+        for (int i = 0; i < size; ++i) {
+            rowMask[i] = 0;
+            colMask[i] = 0;
+            boxMask[i] = 0;
+        }
+    }
+
+    /**
+     * Clear the board and place the non-zero numbers of the given size-by-size array.
+     * Return false if two of these numbers conflict.
+     */
+    public boolean load(int[][] numbers) {
+        clear();
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int digit = numbers[rowOf[cell]][colOf[cell]];
+            if (digit != 0) {
+                if (!canPlace(cell, digit)) {
+                    return false;
+                }
+                place(cell, digit);
+            }
+        }
+        return true;
+    }
+
+    /** Return the candidate mask of the given cell (bit d - 1 for digit d) */
+    public int candidates(int cell) {
+        return ~(rowMask[rowOf[cell]] | colMask[colOf[cell]] | boxMask[boxOf[cell]]) & allDigits;
+    }
+
+    /** Return true if digit can be placed in the given (empty) cell */
+    public boolean canPlace(int cell, int digit) {
+        return (candidates(cell) & (1 << (digit - 1))) != 0;
+    }
+
+    /** Place digit in the given empty cell and update the masks */
+    public void place(int cell, int digit) {
+        int bit = 1 << (digit - 1);
+        cells[cell] = digit;
+        rowMask[rowOf[cell]] |= bit;
+        colMask[colOf[cell]] |= bit;
+        boxMask[boxOf[cell]] |= bit;
+        // Remove from the empty set by moving the last empty cell into its slot
+        int index = emptyIndex[cell];
+        int last = empty[--emptyCount];
+        empty[index] = last;
+        emptyIndex[last] = index;
+    }
+
+    /** Remove the digit of the given cell and update the masks */
+    public void undo(int cell) {
+        int bit = ~(1 << (cells[cell] - 1));
+        cells[cell] = 0;
+        rowMask[rowOf[cell]] &= bit;
+        colMask[colOf[cell]] &= bit;
+        boxMask[boxOf[cell]] &= bit;
+        empty[emptyCount] = cell;
+        emptyIndex[cell] = emptyCount++;
+    }
+
+    /** Clear the board and fill it with a random valid solution */
+    public boolean fillRandom() {
+        for (int attempt = 0; attempt < MAX_FILL_ATTEMPTS; ++attempt) {
+            clear();
+            // Random.nextInt() is synchronized through an AtomicLong, which dominates the
+            //  fill time; draw one seed from it and use a plain xorshift for the shuffles
+            seed = rand.nextLong() | 1;
+            if (subgridSize <= 3) {
+                // On 9x9 plain row-major backtracking rarely backtracks far, and is
+                //  cheaper than propagating at every node
+                if (fillRowMajor(0)) {
+                    return true;
+                }
+            } else if (run(1, true, true, (long) FILL_NODES_PER_CELL * cellCount, null) == 1) {
+                // An unlucky early choice can trap the search in a huge dead subtree on
+                //  the larger boards; restarting with a new seed is much cheaper
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Backtracking over the cells in row-major order
+    private boolean fillRowMajor(int cell) {
+        if (cell == cellCount) {
+            return true; // Board is completely filled
+        }
+        int start = cell * size;
+        int count = shuffleCandidates(start, candidates(cell));
+        for (int i = start; i < start + count; ++i) {
+            place(cell, order[i]);
+            if (fillRowMajor(cell + 1)) {
+                return true;
+            }
+            undo(cell); // Backtrack
+        }
+        return false; // No valid digit for this cell
+    }
+
+    /**
+     * Count the solutions of the current board, stopping as soon as limit is reached.
+     * Use limit 2 to check that a puzzle has a unique solution.
+     * The board is left unchanged.
+     */
+    public int countSolutions(int limit) {
+        return countSolutions(limit, null);
+    }
+
+    /**
+     * Same as countSolutions(limit), but also run onSolution each time a solution is
+     * found, while the solution is still on the board (in cells).
+     */
+    public int countSolutions(int limit, Runnable onSolution) {
+        return run(limit, false, false, Long.MAX_VALUE, onSolution);
+    }
+
+    /**
+     * Return true if the current board has exactly one solution, and this could be
+     * proven within nodeBudget branching nodes. Running out of budget counts as
+     * not unique. The board is left unchanged.
+     */
+    public boolean hasUniqueSolution(long nodeBudget) {
+        return run(2, false, false, nodeBudget, null) == 1 && nodes <= nodeBudget;
+    }
+
+    // Set up the search state and run it from the current board
+    private int run(int limit, boolean randomOrder, boolean keepSolution, long nodeBudget,
+                    Runnable onSolution) {
+        this.randomOrder = randomOrder;
+        this.keepSolution = keepSolution;
+        this.nodeBudget = nodeBudget;
+        this.onSolution = onSolution;
+        this.nodes = 0;
+        int found = search(0, limit);
+        if (keepSolution) {
+            trailSize = 0; // The kept cells are now part of the board
+        }
+        this.onSolution = null;
+        return found;
+    }
+
+    // Place the forced digits, then branch on the most constrained empty cell (MRV).
+    // Return the number of solutions found, at most limit.
+    private int search(int depth, int limit) {
+        int mark = trailSize;
+        if (!propagate()) {
+            undoTo(mark);
+            return 0; // Dead end
+        }
+        if (emptyCount == 0) {
+            if (onSolution != null) {
+                onSolution.run();
+            }
+            if (!keepSolution) {
+                undoTo(mark);
+            }
+            return 1; // All cells filled: one solution found
+        }
+        if (++nodes > nodeBudget) {
+            undoTo(mark);
+            return 0; // Give up this attempt
+        }
+
+        // Find the most constrained empty cell (MRV)
+        int cell = empty[0];
+        int bestMask = candidates(cell);
+        int bestCount = Integer.bitCount(bestMask);
+        for (int i = 1; i < emptyCount && bestCount > 2; ++i) {
+            int mask = candidates(empty[i]);
+            int n = Integer.bitCount(mask);
+            if (n < bestCount) {
+                bestCount = n;
+                bestMask = mask;
+                cell = empty[i];
+            }
+        }
+
+        int start = depth * size;
+        int count = randomOrder ? shuffleCandidates(start, bestMask) : listCandidates(start, bestMask);
+        int found = 0;
+        for (int i = start; i < start + count && found < limit && nodes <= nodeBudget; ++i) {
+            push(cell, order[i]);
+            found += search(depth + 1, limit - found);
+            if (keepSolution && found >= limit) {
+                return found; // Leave the solution on the board
+            }
+            undoTo(mark);
+        }
+        return found;
+    }
+
+    // Place every naked single (cell with one candidate) and hidden single (digit
+    //  with one possible cell in a unit) until none is left.
+    // Return false if some cell or some unit runs out of candidates.
+    private boolean propagate() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            // Naked singles. Going backwards, a placed cell is replaced by one already seen
+            for (int i = emptyCount - 1; i >= 0; --i) {
+                if (i >= emptyCount) continue;
+                int cell = empty[i];
+                int mask = candidates(cell);
+                if (mask == 0) {
+                    return false;
+                }
+                if ((mask & (mask - 1)) == 0) {
+                    push(cell, Integer.numberOfTrailingZeros(mask) + 1);
+                    changed = true;
+                }
+            }
+            // Hidden singles
+            for (int unit = 0; unit < 3 * size; ++unit) {
+                int once = 0, twice = 0;
+                for (int cell : unitCells[unit]) {
+                    if (cells[cell] == 0) {
+                        int mask = candidates(cell);
+                        twice |= once & mask;
+                        once |= mask;
+                    }
+                }
+                if ((once | usedMask(unit)) != allDigits) {
+                    return false; // Some digit has no place left in this unit
+                }
+                int singles = once & ~twice;
+                while (singles != 0) {
+                    int bit = singles & -singles;
+                    singles &= singles - 1;
+                    for (int cell : unitCells[unit]) {
+                        if (cells[cell] == 0 && (candidates(cell) & bit) != 0) {
+                            push(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                            break;
+                        }
+                    }
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Return the used-digit mask of the given unit
+    private int usedMask(int unit) {
+        if (unit < size) return rowMask[unit];
+        if (unit < 2 * size) return colMask[unit - size];
+        return boxMask[unit - 2 * size];
+    }
+
+    // Place digit in cell and remember it on the trail
+    private void push(int cell, int digit) {
+        place(cell, digit);
+        trail[trailSize++] = cell;
+    }
+
+    // Undo the cells placed since the trail had the given size
+    private void undoTo(int mark) {
+        while (trailSize > mark) {
+            undo(trail[--trailSize]);
+        }
+    }
+
+    // Write the digits of mask in increasing order into order[start ..], return how many
+    private int listCandidates(int start, int mask) {
+        int count = 0;
+        while (mask != 0) {
+            order[start + count++] = Integer.numberOfTrailingZeros(mask) + 1;
+            mask &= mask - 1;
+        }
+        return count;
+    }
+
+    // Write the digits of mask in random order into order[start ..], return how many
+    private int shuffleCandidates(int start, int mask) {
+        int count = 0;
+        while (mask != 0) {
+            int bit = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            // Inside-out Fisher-Yates shuffle while extracting the digits
+            int j = nextInt(count + 1);
+            order[start + count] = order[start + j];
+            order[start + j] = bit + 1;
+            ++count;
+        }
+        return count;
+    }
+
+    // Return a pseudo-random int in [0, bound) from the xorshift state
+    private int nextInt(int bound) {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) (((seed >>> 32) * bound) >>> 32);
+    }
+
+    /** Copy the board into the given size-by-size array */
+    public void copyTo(int[][] numbers) {
+        for (int cell = 0; cell < cellCount; ++cell) {
+            numbers[rowOf[cell]][colOf[cell]] = cells[cell];
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.function.Consumer;
+
+/**
+ * SudokuSolver using Knuth's Algorithm X with Dancing Links (DLX).
+ *
+ * Sudoku is modelled as an exact-cover problem. Each row of the matrix is a
+ * choice "digit d in cell (r, c)" and covers exactly four columns, one for each
+ * constraint of SudokuConstants:
+ * 1. cell (r, c) holds a digit,
+ * 2. row r holds digit d,
+ * 3. column c holds digit d,
+ * 4. sub-grid b holds digit d.
+ *
+ * The nodes of the matrix live in parallel int arrays (left, right, up, down,
+ * column) that are allocated and linked once in the constructor. A puzzle is
+ * loaded by covering the rows of its givens, and these covers are undone after
+ * the search, so the same node pool is reused by every call.
+ */
+public class DancingLinksSolver implements SudokuSolver {
+    private static final int ROOT = 0;
+
+    private final int size;
+    // Links of every node; nodes 1..columns are the column headers
+    private final int[] left, right, up, down, column;
+    // Number of nodes currently in each column (indexed by header)
+    private final int[] columnSize;
+    // Index of the first node of the matrix rows
+    private final int firstRowNode;
+
+    // Row node chosen at each depth of the search
+    private final int[] chosen;
+    // Row nodes of the givens, in the order they were covered
+    private final int[] givens;
+    private int givenCount;
+
+    // State of the running search
+    private int limit;
+    private int found;
+    private int[][] solution;
+    private Consumer<int[][]> listener;
+
+    /** Constructor for the standard board of SudokuConstants */
+    public DancingLinksSolver() {
+        this(SudokuConstants.SUBGRID_SIZE);
+    }
+
+    /** Constructor for a board made of subgridSize-by-subgridSize sub-grids */
+    public DancingLinksSolver(int subgridSize) {
+        this.size = subgridSize * subgridSize;
+        int cells = size * size;
+        int columns = 4 * cells;
+        int rows = cells * size;
+        int nodes = 1 + columns + 4 * rows;
+        firstRowNode = 1 + columns;
+
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        columnSize = new int[1 + columns];
+        chosen = new int[cells];
+        givens = new int[cells];
+        solution = new int[size][size];
+
+        // Circular list of column headers around the root
+        for (int c = 0; c <= columns; ++c) {
+            left[c] = (c == 0) ? columns : c - 1;
+            right[c] = (c == columns) ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+        // One matrix row of four nodes for each (row, col, digit)
+        for (int row = 0; row < size; ++row) {
+            for (int col = 0; col < size; ++col) {
+                int box = (row / subgridSize) * subgridSize + col / subgridSize;
+                for (int d = 0; d < size; ++d) {
+                    int first = nodeOf(row, col, d);
+                    appendNode(first, 1 + row * size + col);
+                    appendNode(first + 1, 1 + cells + row * size + d);
+                    appendNode(first + 2, 1 + 2 * cells + col * size + d);
+                    appendNode(first + 3, 1 + 3 * cells + box * size + d);
+                    for (int k = 0; k < 4; ++k) {
+                        left[first + k] = first + (k + 3) % 4;
+                        right[first + k] = first + (k + 1) % 4;
+                    }
+                }
+            }
+        }
+    }
+
+    // Return the first node of the matrix row for digit (d + 1) in (row, col)
+    private int nodeOf(int row, int col, int d) {
+        return firstRowNode + 4 * ((row * size + col) * size + d);
+    }
+
+    // Link node at the bottom of the given column
+    private void appendNode(int node, int col) {
+        column[node] = col;
+        up[node] = up[col];
+        down[node] = col;
+        down[up[col]] = node;
+        up[col] = node;
+        columnSize[col]++;
+    }
+
+    @Override
+    public boolean solve(int[][] grid) {
+        if (run(grid, 1, null) == 0) {
+            return false;
+        }
+        for (int row = 0; row < size; ++row) {
+            System.arraycopy(solution[row], 0, grid[row], 0, size);
+        }
+        return true;
+    }
+
+    @Override
+    public int countSolutions(int[][] grid, int limit) {
+        return run(grid, limit, null);
+    }
+
+    @Override
+    public int enumerate(int[][] grid, int limit, Consumer<int[][]> listener) {
+        return run(grid, limit, listener);
+    }
+
+    // Load the givens, search, then restore the matrix to its initial state
+    private int run(int[][] grid, int limit, Consumer<int[][]> listener) {
+        this.limit = limit;
+        this.listener = listener;
+        this.found = 0;
+        if (loadGivens(grid)) {
+            // The solution array starts as a copy of the givens
+            for (int row = 0; row < size; ++row) {
+                System.arraycopy(grid[row], 0, solution[row], 0, size);
+            }
+            search(0);
+        }
+        unloadGivens();
+        this.listener = null;
+        return found;
+    }
+
+    // Cover the matrix rows of the givens. Return false if two givens conflict
+    private boolean loadGivens(int[][] grid) {
+        givenCount = 0;
+        for (int row = 0; row < size; ++row) {
+            for (int col = 0; col < size; ++col) {
+                int digit = grid[row][col];
+                if (digit == 0) continue;
+                int node = nodeOf(row, col, digit - 1);
+                // A column already covered means another given used this constraint
+                for (int k = 0; k < 4; ++k) {
+                    if (isCovered(column[node + k])) {
+                        return false;
+                    }
+                }
+                selectRow(node);
+                givens[givenCount++] = node;
+            }
+        }
+        return true;
+    }
+
+    // Undo the covers of loadGivens(), in reverse order
+    private void unloadGivens() {
+        while (givenCount > 0) {
+            unselectRow(givens[--givenCount]);
+        }
+    }
+
+    // A header is covered when its neighbours no longer point back to it
+    private boolean isCovered(int col) {
+        return right[left[col]] != col;
+    }
+
+    // Cover all the columns of the matrix row starting at node
+    private void selectRow(int node) {
+        cover(column[node]);
+        for (int j = right[node]; j != node; j = right[j]) {
+            cover(column[j]);
+        }
+    }
+
+    // Uncover all the columns of the matrix row starting at node
+    private void unselectRow(int node) {
+        for (int j = left[node]; j != node; j = left[j]) {
+            uncover(column[j]);
+        }
+        uncover(column[node]);
+    }
+
+    // Algorithm X: branch on the column with the fewest remaining rows
+    private void search(int depth) {
+        if (right[ROOT] == ROOT) {
+            found++;
+            if (listener != null) {
+                writeSolution(depth);
+                listener.accept(solution);
+            } else if (found == 1) {
+                writeSolution(depth);
+            }
+            return;
+        }
+        int col = right[ROOT];
+        for (int c = right[col]; c != ROOT; c = right[c]) {
+            if (columnSize[c] < columnSize[col]) {
+                col = c;
+                if (columnSize[col] <= 1) break;
+            }
+        }
+        if (columnSize[col] == 0) {
+            return; // Dead end
+        }
+        cover(col);
+        for (int r = down[col]; r != col && found < limit; r = down[r]) {
+            chosen[depth] = r;
+            for (int j = right[r]; j != r; j = right[j]) {
+                cover(column[j]);
+            }
+            search(depth + 1);
+            for (int j = left[r]; j != r; j = left[j]) {
+                uncover(column[j]);
+            }
+        }
+        uncover(col);
+    }
+
+    // Write the digits of the chosen rows into the solution array
+    private void writeSolution(int depth) {
+        for (int i = 0; i < depth; ++i) {
+            int index = (chosen[i] - firstRowNode) / 4;
+            int digit = index % size + 1;
+            int cell = index / size;
+            solution[cell / size][cell % size] = digit;
+        }
+    }
+
+    // Remove column col and every row that uses it from the matrix
+    private void cover(int col) {
+        right[left[col]] = right[col];
+        left[right[col]] = left[col];
+        for (int i = down[col]; i != col; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    // Exact inverse of cover(col)
+    private void uncover(int col) {
+        for (int i = up[col]; i != col; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[col]] = col;
+        left[right[col]] = col;
+    }
+}
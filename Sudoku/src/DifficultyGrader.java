@@ -0,0 +1,478 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+/**
+ * The DifficultyGrader solves a puzzle the way a person would, with a ranked list of
+ * techniques, and grades it by the hardest technique it needed.
+ *
+ * At each step the easiest technique that makes progress is applied, then the
+ * search starts again from the easiest one. A puzzle that gets stuck needs guessing
+ * (or has no unique solution) and is graded GUESSING. A puzzle solved with these
+ * techniques alone always has exactly one solution, so grading also proves uniqueness.
+ *
+ * Candidates are kept as bitmasks (bit d - 1 for digit d), like in ConstraintEngine.
+ * Subsets (pairs, triples) and fish (X-Wing, Swordfish) are one and the same search
+ * over masks: k units whose candidates fit in k places. All the working arrays are
+ * allocated once, so grading does not allocate any object.
+ */
+public class DifficultyGrader {
+    // Techniques, from the easiest to the hardest
+    public static final int NAKED_SINGLE = 0;
+    public static final int HIDDEN_SINGLE = 1;
+    public static final int LOCKED_CANDIDATES = 2;
+    public static final int NAKED_PAIR = 3;
+    public static final int HIDDEN_PAIR = 4;
+    public static final int NAKED_TRIPLE = 5;
+    public static final int HIDDEN_TRIPLE = 6;
+    public static final int X_WING = 7;
+    public static final int SWORDFISH = 8;
+    public static final int XY_WING = 9;
+    /** Grade of a puzzle that none of the techniques can finish */
+    public static final int GUESSING = 10;
+
+    /** Names of the techniques, indexed by technique */
+    public static final String[] TECHNIQUE_NAMES = {
+            "Naked Single", "Hidden Single", "Locked Candidates", "Naked Pair", "Hidden Pair",
+            "Naked Triple", "Hidden Triple", "X-Wing", "Swordfish", "XY-Wing", "Guessing"};
+
+    private final int size, subgridSize, cellCount, allDigits;
+    // Row, column and sub-grid index of each cell
+    private final int[] rowOf, colOf, boxOf;
+    // The cells of each unit: rows first, then columns, then sub-grids
+    private final int[][] unitCells;
+    // The other cells of the row, column and sub-grid of each cell
+    private final int[][] peers;
+
+    // Digit of each cell (0 while unsolved) and its candidate mask (0 once solved)
+    private final int[] values, candidates;
+    private int unsolved;
+    // First cell solved by a technique since load(), or -1
+    private int solvedCell;
+    // Scratch masks for the subset search, one per unit position or digit
+    private final int[] masks;
+
+    /** Constructor for the standard board of SudokuConstants */
+    public DifficultyGrader() {
+        this(SudokuConstants.SUBGRID_SIZE);
+    }
+
+    /** Constructor for a board made of subgridSize-by-subgridSize sub-grids */
+    public DifficultyGrader(int subgridSize) {
+        this.subgridSize = subgridSize;
+        this.size = subgridSize * subgridSize;
+        this.cellCount = size * size;
+        this.allDigits = (1 << size) - 1;
+        rowOf = new int[cellCount];
+        colOf = new int[cellCount];
+        boxOf = new int[cellCount];
+        unitCells = new int[3 * size][size];
+        peers = new int[cellCount][3 * (size - 1) - 2 * (subgridSize - 1)];
+        values = new int[cellCount];
+        candidates = new int[cellCount];
+        masks = new int[size];
+
+        int[] filled = new int[3 * size];
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int row = cell / size;
+            int col = cell % size;
+            int box = (row / subgridSize) * subgridSize + col / subgridSize;
+            rowOf[cell] = row;
+            colOf[cell] = col;
+            boxOf[cell] = box;
+            unitCells[row][filled[row]++] = cell;
+            unitCells[size + col][filled[size + col]++] = cell;
+            unitCells[2 * size + box][filled[2 * size + box]++] = cell;
+        }
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int count = 0;
+            for (int other = 0; other < cellCount; ++other) {
+                if (other != cell && sees(cell, other)) {
+                    peers[cell][count++] = other;
+                }
+            }
+        }
+    }
+
+    /**
+     * Grade the board given as digits in row-major order (0 for an empty cell),
+     * using only the techniques up to maxTechnique. Return the hardest technique
+     * needed, or GUESSING if these techniques cannot solve the board.
+     */
+    public int grade(int[] cells, int maxTechnique) {
+        if (!load(cells)) {
+            return GUESSING; // Conflicting givens
+        }
+        int hardest = NAKED_SINGLE;
+        while (unsolved > 0) {
+            int technique = step(maxTechnique);
+            if (technique < 0) {
+                return GUESSING;
+            }
+            hardest = Math.max(hardest, technique);
+        }
+        return hardest;
+    }
+
+    /**
+     * Apply the techniques up to maxTechnique to the board (digits in row-major
+     * order, 0 for an empty cell) until one cell is solved. Return the hardest
+     * technique needed for it, or GUESSING if none is found; the cell is then given
+     * by getSolvedCell().
+     */
+    public int nextStep(int[] cells, int maxTechnique) {
+        if (!load(cells)) {
+            return GUESSING;
+        }
+        int hardest = NAKED_SINGLE;
+        while (solvedCell < 0) {
+            int technique = step(maxTechnique);
+            if (technique < 0) {
+                return GUESSING;
+            }
+            hardest = Math.max(hardest, technique);
+        }
+        return hardest;
+    }
+
+    /** Return the cell solved by nextStep(), in row-major order */
+    public int getSolvedCell() {
+        return solvedCell;
+    }
+
+    // Set up the candidates of the board. Return false if two givens conflict
+    private boolean load(int[] cells) {
+        unsolved = 0;
+        solvedCell = -1;
+        for (int cell = 0; cell < cellCount; ++cell) {
+            values[cell] = cells[cell];
+            candidates[cell] = (cells[cell] == 0) ? allDigits : 0;
+            if (cells[cell] == 0) {
+                unsolved++;
+            }
+        }
+        for (int cell = 0; cell < cellCount; ++cell) {
+            if (cells[cell] != 0) {
+                int bit = 1 << (cells[cell] - 1);
+                for (int peer : peers[cell]) {
+                    if (cells[peer] == cells[cell]) {
+                        return false;
+                    }
+                    candidates[peer] &= ~bit;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Apply the easiest technique that makes progress and return it, or -1 if none
+    //  does (or the board has no solution)
+    private int step(int maxTechnique) {
+        for (int technique = NAKED_SINGLE; technique <= maxTechnique; ++technique) {
+            int progress = apply(technique);
+            if (progress < 0) {
+                return -1;
+            }
+            if (progress > 0) {
+                return technique;
+            }
+        }
+        return -1;
+    }
+
+    // Apply one technique. Return 1 on progress, 0 if it does not apply, or -1 on a
+    //  contradiction
+    private int apply(int technique) {
+        switch (technique) {
+            case NAKED_SINGLE:      return nakedSingles();
+            case HIDDEN_SINGLE:     return hiddenSingles();
+            case LOCKED_CANDIDATES: return lockedCandidates() ? 1 : 0;
+            case NAKED_PAIR:        return nakedSubset(2) ? 1 : 0;
+            case HIDDEN_PAIR:       return hiddenSubset(2) ? 1 : 0;
+            case NAKED_TRIPLE:      return nakedSubset(3) ? 1 : 0;
+            case HIDDEN_TRIPLE:     return hiddenSubset(3) ? 1 : 0;
+            case X_WING:            return fish(2) ? 1 : 0;
+            case SWORDFISH:         return fish(3) ? 1 : 0;
+            case XY_WING:           return xyWing() ? 1 : 0;
+            default:                return 0;
+        }
+    }
+
+    // Solve the cell with digit and remove the digit from its peers
+    private void solve(int cell, int digit) {
+        int bit = 1 << (digit - 1);
+        values[cell] = digit;
+        candidates[cell] = 0;
+        unsolved--;
+        if (solvedCell < 0) {
+            solvedCell = cell;
+        }
+        for (int peer : peers[cell]) {
+            candidates[peer] &= ~bit;
+        }
+    }
+
+    // Solve every cell left with a single candidate
+    private int nakedSingles() {
+        int progress = 0;
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int mask = candidates[cell];
+            if (mask == 0 && values[cell] == 0) {
+                return -1; // No candidate left
+            }
+            if (mask != 0 && (mask & (mask - 1)) == 0) {
+                solve(cell, Integer.numberOfTrailingZeros(mask) + 1);
+                progress = 1;
+            }
+        }
+        return progress;
+    }
+
+    // Solve every digit that has a single place left in a unit
+    private int hiddenSingles() {
+        int progress = 0;
+        for (int[] unit : unitCells) {
+            int once = 0, twice = 0, open = 0;
+            for (int cell : unit) {
+                int mask = candidates[cell];
+                twice |= once & mask;
+                once |= mask;
+                if (mask != 0) {
+                    open++;
+                }
+            }
+            if (Integer.bitCount(once) < open) {
+                return -1; // More empty cells than digits left for them
+            }
+            int single = once & ~twice;
+            while (single != 0) {
+                int bit = single & -single;
+                single &= single - 1;
+                for (int cell : unit) {
+                    if ((candidates[cell] & bit) != 0) {
+                        solve(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                        progress = 1;
+                        break;
+                    }
+                }
+            }
+        }
+        return progress;
+    }
+
+    // Pointing and claiming: a digit of a sub-grid confined to one row or column (or
+    //  the reverse) can be removed from the rest of that row or column (or sub-grid)
+    private boolean lockedCandidates() {
+        boolean progress = false;
+        for (int box = 0; box < size; ++box) {
+            int[] boxCells = unitCells[2 * size + box];
+            for (int line = 0; line < 2 * size; ++line) {
+                boolean isRow = line < size;
+                int index = isRow ? line : line - size;
+                int first = boxCells[0];
+                int firstLine = isRow ? rowOf[first] : colOf[first];
+                if (index < firstLine || index >= firstLine + subgridSize) {
+                    continue; // The line does not cross this sub-grid
+                }
+                int inside = 0, boxRest = 0, lineRest = 0;
+                for (int cell : boxCells) {
+                    if ((isRow ? rowOf[cell] : colOf[cell]) == index) {
+                        inside |= candidates[cell];
+                    } else {
+                        boxRest |= candidates[cell];
+                    }
+                }
+                for (int cell : unitCells[line]) {
+                    if (boxOf[cell] != box) {
+                        lineRest |= candidates[cell];
+                    }
+                }
+                int pointing = inside & ~boxRest & lineRest;
+                int claiming = inside & ~lineRest & boxRest;
+                if (pointing != 0) {
+                    for (int cell : unitCells[line]) {
+                        if (boxOf[cell] != box) {
+                            candidates[cell] &= ~pointing;
+                        }
+                    }
+                    progress = true;
+                }
+                if (claiming != 0) {
+                    for (int cell : boxCells) {
+                        if ((isRow ? rowOf[cell] : colOf[cell]) != index) {
+                            candidates[cell] &= ~claiming;
+                        }
+                    }
+                    progress = true;
+                }
+            }
+        }
+        return progress;
+    }
+
+    // k cells of a unit whose candidates are k digits: remove these digits from the
+    //  other cells of the unit
+    private boolean nakedSubset(int k) {
+        for (int[] unit : unitCells) {
+            for (int i = 0; i < size; ++i) {
+                masks[i] = candidates[unit[i]];
+            }
+            int chosen = findSubset(k);
+            if (chosen != 0) {
+                int digits = union(chosen);
+                for (int i = 0; i < size; ++i) {
+                    if ((chosen & (1 << i)) == 0) {
+                        candidates[unit[i]] &= ~digits;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // k digits of a unit confined to k cells: remove the other digits from these cells
+    private boolean hiddenSubset(int k) {
+        for (int[] unit : unitCells) {
+            for (int d = 0; d < size; ++d) {
+                masks[d] = placesOf(unit, 1 << d);
+            }
+            int chosen = findSubset(k);
+            if (chosen != 0) {
+                int places = union(chosen);
+                for (int i = 0; i < size; ++i) {
+                    if ((places & (1 << i)) != 0) {
+                        candidates[unit[i]] &= chosen;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // X-Wing (k = 2) and Swordfish (k = 3): a digit confined to k columns in k rows can
+    //  be removed from the rest of these columns, and the same with rows and columns
+    //  swapped
+    private boolean fish(int k) {
+        for (int d = 0; d < size; ++d) {
+            int bit = 1 << d;
+            for (int base = 0; base < 2; ++base) {
+                // base 0 takes the rows as base units and the columns as cover units
+                for (int i = 0; i < size; ++i) {
+                    masks[i] = placesOf(unitCells[base * size + i], bit);
+                }
+                int chosen = findSubset(k);
+                if (chosen != 0) {
+                    int cover = union(chosen);
+                    for (int i = 0; i < size; ++i) {
+                        if ((chosen & (1 << i)) != 0) continue;
+                        int[] unit = unitCells[base * size + i];
+                        for (int j = 0; j < size; ++j) {
+                            if ((cover & (1 << j)) != 0) {
+                                candidates[unit[j]] &= ~bit;
+                            }
+                        }
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // A pivot with candidates {a, b} and two peers {a, c} and {b, c}: one of the two
+    //  peers holds c, so c can be removed from every cell that sees both of them
+    private boolean xyWing() {
+        for (int pivot = 0; pivot < cellCount; ++pivot) {
+            int ab = candidates[pivot];
+            if (Integer.bitCount(ab) != 2) continue;
+            for (int first : peers[pivot]) {
+                int ac = candidates[first];
+                if (Integer.bitCount(ac) != 2 || Integer.bitCount(ab & ac) != 1) continue;
+                int c = ac & ~ab;
+                int bc = (ab & ~ac) | c;
+                for (int second : peers[pivot]) {
+                    if (candidates[second] != bc || second == first) continue;
+                    boolean progress = false;
+                    for (int cell : peers[first]) {
+                        if (cell != second && (candidates[cell] & c) != 0 && sees(cell, second)) {
+                            candidates[cell] &= ~c;
+                            progress = true;
+                        }
+                    }
+                    if (progress) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // Return the positions (bit i for unit[i]) where the digit bit is a candidate
+    private int placesOf(int[] unit, int bit) {
+        int places = 0;
+        for (int i = 0; i < size; ++i) {
+            if ((candidates[unit[i]] & bit) != 0) {
+                places |= 1 << i;
+            }
+        }
+        return places;
+    }
+
+    // Return the union of masks[i] over the bits i of chosen
+    private int union(int chosen) {
+        int union = 0;
+        for (int i = 0; i < size; ++i) {
+            if ((chosen & (1 << i)) != 0) {
+                union |= masks[i];
+            }
+        }
+        return union;
+    }
+
+    // Find k masks whose union has exactly k bits, and that some other mask overlaps
+    //  (otherwise there is nothing to remove). Return the chosen indices as bits, or 0.
+    private int findSubset(int k) {
+        return findSubset(k, 0, 0, 0, 0);
+    }
+
+    private int findSubset(int k, int start, int depth, int chosen, int union) {
+        if (depth == k) {
+            if (Integer.bitCount(union) != k) {
+                return 0;
+            }
+            int others = 0;
+            for (int i = 0; i < size; ++i) {
+                if ((chosen & (1 << i)) == 0) {
+                    others |= masks[i];
+                }
+            }
+            return ((others & union) != 0) ? chosen : 0;
+        }
+        for (int i = start; i < size; ++i) {
+            int count = Integer.bitCount(masks[i]);
+            // A mask with one bit is a single, found by an easier technique
+            if (count < 2 || count > k) continue;
+            int next = union | masks[i];
+            if (Integer.bitCount(next) > k) continue;
+            int found = findSubset(k, i + 1, depth + 1, chosen | (1 << i), next);
+            if (found != 0) {
+                return found;
+            }
+        }
+        return 0;
+    }
+
+    // Return true if the two cells share a row, a column or a sub-grid
+    private boolean sees(int a, int b) {
+        return rowOf[a] == rowOf[b] || colOf[a] == colOf[b] || boxOf[a] == boxOf[b];
+    }
+}
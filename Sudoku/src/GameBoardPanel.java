@@ -12,6 +12,7 @@ import java.awt.*;
 import java.awt.event.*;
 import javax.swing.*;
 import javax.swing.border.Border;
+import java.util.function.Consumer;
 
 public class GameBoardPanel extends JPanel {
     private static final long serialVersionUID = 1L;  // to prevent serial warning
@@ -21,81 +22,122 @@ public class GameBoardPanel extends JPanel {
     private static final int MAX_INCORRECT_GUESSES = 3; // Maximum allowed incorrect guesses
 
     // Define named constants for UI sizes
-    public static final int CELL_SIZE = 60;   // Cell width/height in pixels
-    public static final int BOARD_WIDTH  = CELL_SIZE * SudokuConstants.GRID_SIZE;
-    public static final int BOARD_HEIGHT = CELL_SIZE * SudokuConstants.GRID_SIZE;
-    // Board width/height in pixels
+    public static final int CELL_SIZE = 60;   // Cell width/height in pixels (9x9 board)
+    public static final int MAX_BOARD_SIZE = 900;  // Larger boards use smaller cells to fit
 
     // Define properties
-    /** The game board composes of 9x9 Cells (customized JTextFields) */
-    private Cell[][] cells = new Cell[SudokuConstants.GRID_SIZE][SudokuConstants.GRID_SIZE];
+    /** Size of the board and of a sub-grid, e.g., 9 and 3 */
+    private final int size, subgridSize;
+    /** The game board composes of size-by-size Cells (customized JTextFields) */
+    private Cell[][] cells;
     /** It also contains a Puzzle with array numbers and isGiven */
-    private Puzzle puzzle = new Puzzle();
+    private Puzzle puzzle;
+    /** Digits on the board, updated on each input instead of rescanning the Cells */
+    private final BoardState state;
+    /** Finds the next deducible cell when the player asks for a hint */
+    private final HintEngine hints;
+    /** Puzzles are taken ready-made from the pool of this board size */
+    private final PuzzlePool pool;
+    /** Difficulty level of the current game, and number of the latest pool request */
+    private int level;
+    private int poolRequest = 0;
 
-    /** Constructor */
+    /** Constructor for the standard board of SudokuConstants */
     public GameBoardPanel(SudokuMain mainFrame) {
+        this(mainFrame, SudokuConstants.SUBGRID_SIZE);
+    }
+
+    /** Constructor for a board made of subgridSize-by-subgridSize sub-grids */
+    public GameBoardPanel(SudokuMain mainFrame, int subgridSize) {
         this.mainFrame = mainFrame;
-        super.setLayout(new GridLayout(SudokuConstants.GRID_SIZE, SudokuConstants.GRID_SIZE));  // JPanel
+        this.subgridSize = subgridSize;
+        this.size = subgridSize * subgridSize;
+        cells = new Cell[size][size];
+        puzzle = new Puzzle(subgridSize);
+        state = new BoardState(subgridSize);
+        hints = new HintEngine(subgridSize);
+        pool = PuzzlePool.forSize(subgridSize);
+        super.setLayout(new GridLayout(size, size));  // JPanel
+
+        // Cells shrink on the larger boards, and their font with them
+        int cellSize = Math.min(CELL_SIZE, MAX_BOARD_SIZE / size);
+        Font font = Cell.FONT_NUMBERS.deriveFont(Cell.FONT_NUMBERS.getSize2D() * cellSize / CELL_SIZE);
 
         // Allocate the 2D array of Cell, and add to the JPanel
-        for (int row = 0; row < SudokuConstants.GRID_SIZE; ++row) {
-            for (int col = 0; col < SudokuConstants.GRID_SIZE; ++col) {
+        for (int row = 0; row < size; ++row) {
+            for (int col = 0; col < size; ++col) {
                 cells[row][col] = new Cell(row, col);
+                cells[row][col].setFont(font);
                 cells[row][col].setBorder(createCellBorder(row, col)); // Set the custom border
                 super.add(cells[row][col]);  // Add the cell to the panel
             }
         }
 
-        super.setPreferredSize(new Dimension(BOARD_WIDTH, BOARD_HEIGHT));
+        int boardSize = cellSize * size;  // Board width/height in pixels
+        super.setPreferredSize(new Dimension(boardSize, boardSize));
 
         // [TODO 3] Allocate a common listener as the ActionEvent listener for all the
         //  Cells (JTextFields)
         CellInputListener listener = new CellInputListener();
 
         // [TODO 4] Adds this common listener to all editable cells
-        for(int r = 0; r < SudokuConstants.GRID_SIZE; ++r){
-            for(int c = 0; c < SudokuConstants.GRID_SIZE; ++c){
+        for(int r = 0; r < size; ++r){
+            for(int c = 0; c < size; ++c){
                 if(!puzzle.isGiven[r][c]){
                     cells[r][c].addActionListener(listener);
                 }
             }
         }
-        super.setPreferredSize(new Dimension(BOARD_WIDTH, BOARD_HEIGHT));
     }
     private Border createCellBorder(int row, int col) {
         // Define the thickness for the borders
-        int top = (row % SudokuConstants.SUBGRID_SIZE == 0) ? 4 : 1;
-        int left = (col % SudokuConstants.SUBGRID_SIZE == 0) ? 4 : 1;
-        int bottom = (row == SudokuConstants.GRID_SIZE - 1) ? 4 : 1;
-        int right = (col == SudokuConstants.GRID_SIZE - 1) ? 4 : 1;
+        int top = (row % subgridSize == 0) ? 4 : 1;
+        int left = (col % subgridSize == 0) ? 4 : 1;
+        int bottom = (row == size - 1) ? 4 : 1;
+        int right = (col == size - 1) ? 4 : 1;
 
         // Return a MatteBorder with the specified thickness
         return BorderFactory.createMatteBorder(top, left, bottom, right, Color.LIGHT_GRAY);
     }
     /**
-     * Generate a new puzzle; and reset the game board of cells based on the puzzle.
+     * Take a new puzzle; and reset the game board of cells based on the puzzle.
      * You can call this method to start a new game.
      */
     public void newGame() {
-        // Generate a new puzzle
-        puzzle.newPuzzle();
-        mainFrame.resetScore();
+        // Take a ready puzzle of the chosen level from the pool
+        level = Puzzle.askLevel();
+        loadFromPool();
+    }
 
-        // Initialize all the 9x9 cells, based on the puzzle.
-        for (int row = 0; row < SudokuConstants.GRID_SIZE; ++row) {
-            for (int col = 0; col < SudokuConstants.GRID_SIZE; ++col) {
-                cells[row][col].newGame(puzzle.numbers[row][col], puzzle.isGiven[row][col]);
+    public void restartGame(){
+        loadFromPool();
+    }
+
+    // Ask the pool for a puzzle of the current level. When the pool is empty the puzzle
+    //  is generated in the background, and the board stays locked until it arrives.
+    private void loadFromPool() {
+        final int request = ++poolRequest;
+        disableAllCells();
+        pool.take(level, new Consumer<Puzzle>() {
+            @Override
+            public void accept(Puzzle next) {
+                if (request == poolRequest) {  // Ignore a puzzle asked for by an older click
+                    loadPuzzle(next);
+                }
             }
-        }
+        });
     }
 
-    public void restartGame(){
-        puzzle.restartPuzzle();
+    // Reset the game board of cells based on the given puzzle
+    private void loadPuzzle(Puzzle next) {
+        puzzle = next;
+        state.load(puzzle);
+        hints.load(puzzle);
         mainFrame.resetScore();
 
-        // Initialize all the 9x9 cells, based on the puzzle.
-        for (int row = 0; row < SudokuConstants.GRID_SIZE; ++row) {
-            for (int col = 0; col < SudokuConstants.GRID_SIZE; ++col) {
+        // Initialize all the cells, based on the puzzle.
+        for (int row = 0; row < size; ++row) {
+            for (int col = 0; col < size; ++col) {
                 cells[row][col].newGame(puzzle.numbers[row][col], puzzle.isGiven[row][col]);
             }
         }
@@ -106,14 +148,36 @@ public class GameBoardPanel extends JPanel {
      * i.e., none of the cell have status of TO_GUESS or WRONG_GUESS
      */
     public boolean isSolved() {
-        for (int row = 0; row < SudokuConstants.GRID_SIZE; ++row) {
-            for (int col = 0; col < SudokuConstants.GRID_SIZE; ++col) {
-                if (cells[row][col].status == CellStatus.TO_GUESS || cells[row][col].status == CellStatus.WRONG_GUESS) {
-                    return false;
-                }
+        return state.isSolved();  // O(1): the state counts the cells left to guess
+    }
+
+    // Put digit (0 to empty) in the cell, and update the conflict marks of the cells
+    //  of its units that hold the old or the new digit
+    private void enter(Cell cell, int digit) {
+        int old = state.get(cell.row, cell.col);
+        if (old == digit) {
+            return;
+        }
+        state.set(cell.row, cell.col, digit);
+        hints.update(cell.row, cell.col, digit);
+        int boxRow = cell.row - cell.row % subgridSize;
+        int boxCol = cell.col - cell.col % subgridSize;
+        for (int i = 0; i < size; ++i) {
+            refreshConflict(cells[cell.row][i], old, digit);
+            refreshConflict(cells[i][cell.col], old, digit);
+            refreshConflict(cells[boxRow + i / subgridSize][boxCol + i % subgridSize], old, digit);
+        }
+    }
+
+    private void refreshConflict(Cell cell, int old, int digit) {
+        int value = state.get(cell.row, cell.col);
+        if (value != 0 && (value == old || value == digit)) {
+            boolean conflict = state.isConflict(cell.row, cell.col);
+            if (conflict != cell.conflict) {
+                cell.conflict = conflict;
+                cell.paintConflict();
             }
         }
-        return true;
     }
 
     // [TODO 2] Define a Listener Inner Class for all the editable Cells
@@ -125,11 +189,12 @@ public class GameBoardPanel extends JPanel {
 
             try {
                 int numberIn = Integer.parseInt(sourceCell.getText());
-                if (numberIn < 1 || numberIn > 9) {
+                if (numberIn < 1 || numberIn > size) {
                     // Show warning if the number is outside the valid range
-                    JOptionPane.showMessageDialog(null, "Invalid input! Please enter a number between 1 and 9.",
+                    JOptionPane.showMessageDialog(null, "Invalid input! Please enter a number between 1 and " + size + ".",
                             "Invalid Input", JOptionPane.WARNING_MESSAGE);
                     sourceCell.setText(""); // Clear the invalid input
+                    clearEntry(sourceCell);
                     return;
                 }
 
@@ -142,6 +207,7 @@ public class GameBoardPanel extends JPanel {
                  * Update the cell status sourceCell.status,
                  * and re-paint the cell via sourceCell.paint().
                  */
+                enter(sourceCell, numberIn);
                 if (numberIn == sourceCell.number) {
                     sourceCell.status = CellStatus.CORRECT_GUESS;
                     mainFrame.updateScore(50);
@@ -160,6 +226,7 @@ public class GameBoardPanel extends JPanel {
                 JOptionPane.showMessageDialog(null, "Invalid input! Please enter a valid integer.",
                         "Invalid Input", JOptionPane.WARNING_MESSAGE);
                 sourceCell.setText("");
+                clearEntry(sourceCell);
             }
 
             /*
@@ -180,9 +247,44 @@ public class GameBoardPanel extends JPanel {
             }
         }
     }
+    /**
+     * Fill in the next cell that can be deduced, and tell the player which technique
+     * deduces it. Hints are free, but the cell scores no points.
+     */
+    public void showHint() {
+        if (isSolved()) {
+            return;
+        }
+        HintEngine.Hint hint = hints.next();
+        if (hint == null) {
+            return;
+        }
+        Cell cell = cells[hint.row][hint.col];
+        if (!cell.isEditable()) {
+            return;  // The game is over, or no puzzle is loaded yet
+        }
+        cell.setText(hint.digit + "");
+        enter(cell, hint.digit);
+        cell.status = CellStatus.CORRECT_GUESS;
+        cell.paint();
+        JOptionPane.showMessageDialog(null, hint.toString(), "Hint", JOptionPane.INFORMATION_MESSAGE);
+        if (isSolved()) {
+            JOptionPane.showMessageDialog(null, "Congratulations, you solved it!",
+                    "Sudoku Solved", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    // The cell was emptied: it is to guess again
+    private void clearEntry(Cell cell) {
+        enter(cell, 0);
+        cell.conflict = false;
+        cell.status = CellStatus.TO_GUESS;
+        cell.paint();
+    }
+
     private void disableAllCells() {
-        for (int r = 0; r < SudokuConstants.GRID_SIZE; ++r) {
-            for (int c = 0; c < SudokuConstants.GRID_SIZE; ++c) {
+        for (int r = 0; r < size; ++r) {
+            for (int c = 0; c < size; ++c) {
                 cells[r][c].setEditable(false); // Disable editing
             }
         }
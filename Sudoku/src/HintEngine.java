@@ -0,0 +1,222 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+/**
+ * The HintEngine finds the next cell that can be deduced from the board, and the
+ * technique that deduces it.
+ *
+ * It keeps a grid of candidate masks (bit d - 1 for digit d) for the givens and the
+ * correct entries of the player; wrong entries count as empty. The grid is updated
+ * on each input, and only in the row, column and sub-grid of the changed cell.
+ * Naked and hidden singles, which give most hints, are read straight from the
+ * cached grid. Only when there is none does the engine run the DifficultyGrader
+ * up to the first cell it can solve.
+ */
+public class HintEngine {
+    /** A deduced cell: its position, its digit and the technique that finds it */
+    public static class Hint {
+        public final int row, col, digit, technique;
+
+        Hint(int row, int col, int digit, int technique) {
+            this.row = row;
+            this.col = col;
+            this.digit = digit;
+            this.technique = technique;
+        }
+
+        @Override
+        public String toString() {
+            return DifficultyGrader.TECHNIQUE_NAMES[technique] + ": row " + (row + 1)
+                    + ", column " + (col + 1) + " is " + digit;
+        }
+    }
+
+    private final int size, subgridSize, cellCount, allDigits;
+    // The solution, and the digits known on the board (0 if empty), row-major
+    private final int[] solution, known;
+    // Candidate mask of each cell, 0 once the cell is known
+    private final int[] candidates;
+    // Digits known in each row, column and sub-grid
+    private final int[] rowMask, colMask, boxMask;
+    private final DifficultyGrader grader;
+
+    /** Constructor for a board made of subgridSize-by-subgridSize sub-grids */
+    public HintEngine(int subgridSize) {
+        this.subgridSize = subgridSize;
+        this.size = subgridSize * subgridSize;
+        this.cellCount = size * size;
+        this.allDigits = (1 << size) - 1;
+        solution = new int[cellCount];
+        known = new int[cellCount];
+        candidates = new int[cellCount];
+        rowMask = new int[size];
+        colMask = new int[size];
+        boxMask = new int[size];
+        grader = new DifficultyGrader(subgridSize);
+    }
+
+    /** Start from the givens of the puzzle */
+    public void load(Puzzle puzzle) {
+        for (int i = 0; i < size; ++i) {
+            rowMask[i] = 0;
+            colMask[i] = 0;
+            boxMask[i] = 0;
+        }
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int row = cell / size;
+            int col = cell % size;
+            solution[cell] = puzzle.numbers[row][col];
+            known[cell] = puzzle.isGiven[row][col] ? solution[cell] : 0;
+            if (known[cell] != 0) {
+                int bit = 1 << (known[cell] - 1);
+                rowMask[row] |= bit;
+                colMask[col] |= bit;
+                boxMask[boxOf(row, col)] |= bit;
+            }
+        }
+        for (int cell = 0; cell < cellCount; ++cell) {
+            candidates[cell] = (known[cell] != 0) ? 0 : candidatesOf(cell / size, cell % size);
+        }
+    }
+
+    /** The player put digit (0 if emptied) in the cell at (row, col) */
+    public void update(int row, int col, int digit) {
+        int cell = row * size + col;
+        // A wrong digit tells nothing: the cell is as good as empty
+        int value = (digit == solution[cell]) ? digit : 0;
+        int old = known[cell];
+        if (value == old) {
+            return;
+        }
+        known[cell] = value;
+        int box = boxOf(row, col);
+        if (value != 0) {
+            int bit = 1 << (value - 1);
+            rowMask[row] |= bit;
+            colMask[col] |= bit;
+            boxMask[box] |= bit;
+            candidates[cell] = 0;
+            // Only the units of the cell lose the digit
+            for (int i = 0; i < size; ++i) {
+                candidates[row * size + i] &= ~bit;
+                candidates[i * size + col] &= ~bit;
+                candidates[boxCell(box, i)] &= ~bit;
+            }
+        } else {
+            int bit = ~(1 << (old - 1));
+            rowMask[row] &= bit;
+            colMask[col] &= bit;
+            boxMask[box] &= bit;
+            // Recompute the empty cells of the units of the cell
+            for (int i = 0; i < size; ++i) {
+                refresh(row * size + i);
+                refresh(i * size + col);
+                refresh(boxCell(box, i));
+            }
+        }
+    }
+
+    /**
+     * Return the next cell that can be deduced, with its technique. When no technique
+     * applies, the emptiest cell is revealed with technique GUESSING. Return null if
+     * the board is full.
+     */
+    public Hint next() {
+        int cell = nakedSingle();
+        if (cell >= 0) {
+            return hint(cell, DifficultyGrader.NAKED_SINGLE);
+        }
+        cell = hiddenSingle();
+        if (cell >= 0) {
+            return hint(cell, DifficultyGrader.HIDDEN_SINGLE);
+        }
+        int technique = grader.nextStep(known, DifficultyGrader.XY_WING);
+        if (technique != DifficultyGrader.GUESSING) {
+            return hint(grader.getSolvedCell(), technique);
+        }
+        // Nothing can be deduced: reveal the cell with the fewest candidates
+        int best = -1;
+        for (cell = 0; cell < cellCount; ++cell) {
+            if (known[cell] == 0 && (best < 0
+                    || Integer.bitCount(candidates[cell]) < Integer.bitCount(candidates[best]))) {
+                best = cell;
+            }
+        }
+        return (best < 0) ? null : hint(best, DifficultyGrader.GUESSING);
+    }
+
+    private Hint hint(int cell, int technique) {
+        return new Hint(cell / size, cell % size, solution[cell], technique);
+    }
+
+    // Return an empty cell with a single candidate, or -1
+    private int nakedSingle() {
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int mask = candidates[cell];
+            if (mask != 0 && (mask & (mask - 1)) == 0) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    // Return the cell of a digit that has a single place left in a unit, or -1
+    private int hiddenSingle() {
+        for (int unit = 0; unit < 3 * size; ++unit) {
+            int once = 0, twice = 0;
+            for (int i = 0; i < size; ++i) {
+                int mask = candidates[unitCell(unit, i)];
+                twice |= once & mask;
+                once |= mask;
+            }
+            int single = once & ~twice;
+            if (single != 0) {
+                int bit = single & -single;
+                for (int i = 0; i < size; ++i) {
+                    int cell = unitCell(unit, i);
+                    if ((candidates[cell] & bit) != 0) {
+                        return cell;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Recompute the candidates of the cell from the unit masks
+    private void refresh(int cell) {
+        candidates[cell] = (known[cell] != 0) ? 0 : candidatesOf(cell / size, cell % size);
+    }
+
+    private int candidatesOf(int row, int col) {
+        return ~(rowMask[row] | colMask[col] | boxMask[boxOf(row, col)]) & allDigits;
+    }
+
+    private int boxOf(int row, int col) {
+        return (row / subgridSize) * subgridSize + col / subgridSize;
+    }
+
+    // Return the i-th cell of the sub-grid box
+    private int boxCell(int box, int i) {
+        int row = (box / subgridSize) * subgridSize + i / subgridSize;
+        int col = (box % subgridSize) * subgridSize + i % subgridSize;
+        return row * size + col;
+    }
+
+    // Return the i-th cell of the unit: rows first, then columns, then sub-grids
+    private int unitCell(int unit, int i) {
+        if (unit < size) {
+            return unit * size + i;
+        } else if (unit < 2 * size) {
+            return i * size + (unit - size);
+        }
+        return boxCell(unit - 2 * size, i);
+    }
+}
@@ -8,139 +8,180 @@
  * 3 - 5026231081 - Oryza Reynaleta Wibowo
  */
 import javax.swing.*;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Random;
 
 public class Puzzle {
     // All variables have package access
+    // Size of the board and of a sub-grid, e.g., 9 and 3
+    final int size, subgridSize;
     // The numbers on the puzzle
-    int[][] numbers = new int[SudokuConstants.GRID_SIZE][SudokuConstants.GRID_SIZE];
+    int[][] numbers;
     // The clues - isGiven (no need to guess) or need to guess
-    boolean[][] isGiven = new boolean[SudokuConstants.GRID_SIZE][SudokuConstants.GRID_SIZE];
+    boolean[][] isGiven;
+
+    // Names of the difficulty levels, indexed by level
+    static final String[] LEVEL_NAMES = {"Easy", "Medium", "Hard", "Super Hard"};
+    // Band of the hardest technique a puzzle of each level needs (DifficultyGrader):
+    //  Easy needs only naked singles, Medium hidden singles, Hard subsets or locked
+    //  candidates, and Super Hard fish, XY-Wings or even guessing
+    private static final int[][] LEVEL_BANDS = {
+            {DifficultyGrader.NAKED_SINGLE, DifficultyGrader.NAKED_SINGLE},
+            {DifficultyGrader.HIDDEN_SINGLE, DifficultyGrader.HIDDEN_SINGLE},
+            {DifficultyGrader.LOCKED_CANDIDATES, DifficultyGrader.HIDDEN_TRIPLE},
+            {DifficultyGrader.X_WING, DifficultyGrader.GUESSING}};
+    // Grids dug before settling for a puzzle below the band of its level
+    private static final int MAX_BAND_ATTEMPTS = 50;
+
+    // Branching nodes allowed to prove that a removal keeps the solution unique on
+    //  16x16 and larger boards. Sparse large boards can need huge searches to prove
+    //  uniqueness; such cells are simply kept as clues. 9x9 boards are not limited.
+    private static final long LARGE_BOARD_NODE_BUDGET = 20;
 
     private int level;
-
-    // Constructor
+    // Random generator and constraint engine, allocated on the first generation and
+    //  reused for every puzzle. A Puzzle that is only a copy never allocates them.
+    private final Random rand;
+    private ConstraintEngine engine;
+    private DifficultyGrader grader;
+    // Order in which randomizePuzzle() tries to remove the cells
+    private int[] digOrder;
+    private final long uniquenessNodeBudget;
+
+    // Constructor for the standard board of SudokuConstants
     public Puzzle() {
+        this(SudokuConstants.SUBGRID_SIZE);
+    }
+
+    // Constructor for a board made of subgridSize-by-subgridSize sub-grids
+    public Puzzle(int subgridSize) {
+        this(subgridSize, new Random());
+    }
+
+    // Constructor with the random generator to use, e.g., one per worker thread
+    public Puzzle(int subgridSize, Random rand) {
         super();
+        this.rand = rand;
+        this.subgridSize = subgridSize;
+        this.size = subgridSize * subgridSize;
+        numbers = new int[size][size];
+        isGiven = new boolean[size][size];
+        uniquenessNodeBudget = (subgridSize <= 3) ? Long.MAX_VALUE : LARGE_BOARD_NODE_BUDGET;
     }
 
     // Generate a new puzzle given the number of cells to be guessed, which can be used
     //  to control the difficulty level.
     // This method shall set (or update) the arrays numbers and isGiven
     public void newPuzzle() {
-        level = JOptionPane.showOptionDialog(null, "Choose your difficulty level", "Level", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, new String[]{"Easy", "Medium", "Hard", "Super Hard"}, null);
-        // Generate a random Sudoku grid
-        generateRandomSudoku();
-
-        // Randomly make some cells "not given" (false) by removing their numbers
-
-        randomizePuzzle();
+        generate(askLevel());
     }
 
     public void restartPuzzle(){
-        generateRandomSudoku();
-        randomizePuzzle();
+        generate(level);
     }
 
-    // Generates a random Sudoku board using a backtracking approach
-    private void generateRandomSudoku() {
-        // Use a helper method to fill the board with valid Sudoku numbers
-        fillBoard(0, 0);
+    // Ask the player for the difficulty level. Closing the dialog picks the hardest one.
+    public static int askLevel() {
+        int choice = JOptionPane.showOptionDialog(null, "Choose your difficulty level", "Level", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, LEVEL_NAMES, null);
+        return (choice < 0) ? LEVEL_NAMES.length - 1 : choice;
     }
 
-    // Backtracking method to fill the Sudoku grid with valid numbers
-    private boolean fillBoard(int row, int col) {
-        if (row == SudokuConstants.GRID_SIZE - 1 && col == SudokuConstants.GRID_SIZE) {
-            return true; // Board is completely filled
-        }
-        if (col == SudokuConstants.GRID_SIZE) {
-            row++;
-            col = 0; // Move to the next row
-        }
-
-        // Try placing a random number in the current cell
-        List<Integer> numbersList = getShuffledNumbers(); // Shuffle numbers 1 to 9
-        for (int num : numbersList) {
-            if (isSafe(row, col, num)) {
-                numbers[row][col] = num;
-                if (fillBoard(row, col + 1)) {
-                    return true; // Recursively attempt to fill the next cell
-                }
-                numbers[row][col] = 0; // Backtrack if no valid number
+    // Generate a new puzzle of the given difficulty level, without any dialog.
+    // Safe to call from a worker thread, as long as no other thread uses this Puzzle.
+    public void generate(int level) {
+        this.level = level;
+        int minTechnique = LEVEL_BANDS[level][0];
+        for (int attempt = 1; ; ++attempt) {
+            // Generate a random Sudoku grid
+            generateRandomSudoku();
+
+            // Randomly make some cells "not given" (false) by removing their numbers
+            randomizePuzzle();
+
+            // Digging never goes above the band, but may stop below it: try a new grid
+            if (attempt == MAX_BAND_ATTEMPTS
+                    || grader.grade(engine.cells, DifficultyGrader.XY_WING) >= minTechnique) {
+                break;
             }
         }
-        return false; // No valid number found
     }
 
-    // Checks if placing 'num' at (row, col) is safe
-    private boolean isSafe(int row, int col, int num) {
-        // Check the row and column for conflicts
-        for (int i = 0; i < SudokuConstants.GRID_SIZE; i++) {
-            if (numbers[row][i] == num || numbers[i][col] == num) {
-                return false;
-            }
-        }
+    public int getLevel() {
+        return level;
+    }
 
-        // Check the 3x3 sub-grid for conflicts
-        int startRow = row - row % SudokuConstants.SUBGRID_SIZE;
-        int startCol = col - col % SudokuConstants.SUBGRID_SIZE;
-        for (int i = 0; i < SudokuConstants.SUBGRID_SIZE; i++) {
-            for (int j = 0; j < SudokuConstants.SUBGRID_SIZE; j++) {
-                if (numbers[i + startRow][j + startCol] == num) {
-                    return false;
-                }
-            }
+    void setLevel(int level) {
+        this.level = level;
+    }
+
+    // Return a new Puzzle holding a copy of this puzzle's numbers, clues and level
+    public Puzzle copy() {
+        Puzzle copy = new Puzzle(subgridSize);
+        copy.level = level;
+        for (int row = 0; row < size; ++row) {
+            System.arraycopy(numbers[row], 0, copy.numbers[row], 0, size);
+            System.arraycopy(isGiven[row], 0, copy.isGiven[row], 0, size);
         }
-        return true;
+        return copy;
     }
 
-    // Generate a shuffled list of numbers from 1 to 9 to randomize the order
-    private List<Integer> getShuffledNumbers() {
-        List<Integer> numbersList = new ArrayList<>();
-        for (int i = 1; i <= SudokuConstants.GRID_SIZE; i++) {
-            numbersList.add(i);
+    // Generates a random Sudoku board using a backtracking approach
+    private void generateRandomSudoku() {
+        if (engine == null) {
+            engine = new ConstraintEngine(subgridSize, rand);
+            grader = new DifficultyGrader(subgridSize);
+            digOrder = new int[size * size];
         }
-        Collections.shuffle(numbersList); // Shuffle the numbers to randomize
-        return numbersList;
+        // The engine keeps row/column/sub-grid bitmasks, so each candidate is checked in O(1)
+        engine.fillRandom();
+        engine.copyTo(numbers);
     }
 
-    // Randomly remove numbers from the grid to create the puzzle
+    // Randomly remove numbers from the grid to create the puzzle. A number is removed
+    //  only if the puzzle can still be solved with the techniques allowed at the level,
+    //  which also keeps its solution unique.
     private void randomizePuzzle() {
         // Set all cells to "given" initially (true)
-        for (int row = 0; row < SudokuConstants.GRID_SIZE; ++row) {
-            for (int col = 0; col < SudokuConstants.GRID_SIZE; ++col) {
+        for (int row = 0; row < size; ++row) {
+            for (int col = 0; col < size; ++col) {
                 isGiven[row][col] = true;
             }
         }
 
-        int cellsToRemove = 0;
-
-        // Calculate how many cells need to be removed (30% will be removed)
-        if(level == 0) cellsToRemove = 5;
-        else if(level == 1){
-            cellsToRemove = SudokuConstants.GRID_SIZE*SudokuConstants.GRID_SIZE/5;
-        } else if(level == 2){
-            cellsToRemove = SudokuConstants.GRID_SIZE * SudokuConstants.GRID_SIZE/2;
-        } else {
-            cellsToRemove = (int) (SudokuConstants.GRID_SIZE * SudokuConstants.GRID_SIZE * 0.75);
+        int maxTechnique = LEVEL_BANDS[level][1];
+        // Visit the cells in random order and remove as many as the band allows
+        shuffleDigOrder();
+        for (int i = 0; i < digOrder.length; ++i) {
+            int cell = digOrder[i];
+            int digit = engine.cells[cell];
+            engine.undo(cell);
+            if (isWithinBand(maxTechnique)) {
+                isGiven[cell / size][cell % size] = false;
+            } else {
+                engine.place(cell, digit); // Put it back, the puzzle would get too hard
+            }
         }
+    }
 
-        Random rand = new Random();
-        int removedCells = 0;
-
-        // Randomly choose cells to remove until we reach the target number
-        while (removedCells < cellsToRemove) {
-            int row = rand.nextInt(SudokuConstants.GRID_SIZE);
-            int col = rand.nextInt(SudokuConstants.GRID_SIZE);
+    // Return true if the board of the engine can be solved with techniques up to
+    //  maxTechnique. Beyond the techniques, the solution only has to be unique.
+    private boolean isWithinBand(int maxTechnique) {
+        if (maxTechnique < DifficultyGrader.GUESSING) {
+            return grader.grade(engine.cells, maxTechnique) != DifficultyGrader.GUESSING;
+        }
+        return grader.grade(engine.cells, DifficultyGrader.XY_WING) != DifficultyGrader.GUESSING
+                || engine.hasUniqueSolution(uniquenessNodeBudget);
+    }
 
-            // If the cell is already a given cell, make it a guessed cell (remove it)
-            if (isGiven[row][col]) {
-                isGiven[row][col] = false;
-                removedCells++;
-            }
+    // Shuffle the cell indices of digOrder (Fisher-Yates)
+    private void shuffleDigOrder() {
+        for (int i = 0; i < digOrder.length; ++i) {
+            digOrder[i] = i;
+        }
+        for (int i = digOrder.length - 1; i > 0; --i) {
+            int j = rand.nextInt(i + 1);
+            int tmp = digOrder[i];
+            digOrder[i] = digOrder[j];
+            digOrder[j] = tmp;
         }
     }
 }
@@ -0,0 +1,247 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A PuzzleBank is a compact binary file of puzzles, read through a memory-mapped
+ * FileChannel. Picking a puzzle is O(1): its record is located by arithmetic and
+ * decoded straight from the mapping, so the bank is never loaded onto the heap.
+ *
+ * File layout (big-endian):
+ *   header  magic "SDKB", version, sub-grid size, record size, level count, and
+ *           for each level the index of its first record and its record count
+ *   records fixed-size, grouped by level. One record holds every cell of the
+ *           solution as (digit - 1) in 4 bits, two cells per byte, followed by the
+ *           givens mask, one bit per cell. A 9x9 record is 41 + 11 = 52 bytes.
+ *
+ * 4 bits per cell fits boards up to 16x16.
+ */
+public class PuzzleBank implements Closeable {
+    private static final int MAGIC = 0x53444B42; // "SDKB"
+    private static final short VERSION = 1;
+    private static final int LEVEL_COUNT = Puzzle.LEVEL_NAMES.length;
+    // Position of the per-level table in the header, and size of the header
+    private static final int LEVELS_OFFSET = 20;
+    public static final int HEADER_SIZE = LEVELS_OFFSET + 16 * LEVEL_COUNT;
+    // A mapping is limited to 2 GB, so large banks are mapped in segments of records
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final int subgridSize, size, cellCount, recordSize;
+    private final long[] firstRecord = new long[LEVEL_COUNT];
+    private final long[] recordCount = new long[LEVEL_COUNT];
+    private final MappedByteBuffer[] segments;
+    private final long recordsPerSegment;
+
+    private PuzzleBank(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getShort() != VERSION) {
+            throw new IOException("Not a puzzle bank file");
+        }
+        subgridSize = header.get();
+        header.get(); // reserved
+        recordSize = header.getInt();
+        if (header.getInt() != LEVEL_COUNT) {
+            throw new IOException("Unexpected number of levels in puzzle bank");
+        }
+        header.getInt(); // reserved
+        size = subgridSize * subgridSize;
+        cellCount = size * size;
+        if (recordSize != recordSize(subgridSize)) {
+            throw new IOException("Corrupted puzzle bank header");
+        }
+        long records = 0;
+        for (int level = 0; level < LEVEL_COUNT; ++level) {
+            firstRecord[level] = header.getLong();
+            recordCount[level] = header.getLong();
+            records = Math.max(records, firstRecord[level] + recordCount[level]);
+        }
+        if (HEADER_SIZE + records * recordSize > channel.size()) {
+            throw new IOException("Truncated puzzle bank");
+        }
+
+        recordsPerSegment = MAX_SEGMENT_BYTES / recordSize;
+        int segmentCount = (int) ((records + recordsPerSegment - 1) / recordsPerSegment);
+        segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; ++i) {
+            long first = i * recordsPerSegment;
+            long length = Math.min(recordsPerSegment, records - first) * recordSize;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * recordSize, length);
+        }
+    }
+
+    /** Open an existing bank file for reading */
+    public static PuzzleBank open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new PuzzleBank(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Return the size in bytes of one record for the given sub-grid size */
+    public static int recordSize(int subgridSize) {
+        int cells = subgridSize * subgridSize * subgridSize * subgridSize;
+        return (cells + 1) / 2 + (cells + 7) / 8;
+    }
+
+    public int getSubgridSize() {
+        return subgridSize;
+    }
+
+    /** Return the number of puzzles of the given level */
+    public long count(int level) {
+        return recordCount[level];
+    }
+
+    /** Decode puzzle number index of the given level into the puzzle */
+    public void read(int level, long index, Puzzle into) {
+        if (index < 0 || index >= recordCount[level]) {
+            throw new IndexOutOfBoundsException("No puzzle " + index + " at level " + level);
+        }
+        long record = firstRecord[level] + index;
+        ByteBuffer segment = segments[(int) (record / recordsPerSegment)];
+        int offset = (int) (record % recordsPerSegment) * recordSize;
+        int maskOffset = offset + (cellCount + 1) / 2;
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int packed = segment.get(offset + cell / 2);
+            int nibble = ((cell & 1) == 0) ? packed & 0x0F : (packed >> 4) & 0x0F;
+            boolean given = (segment.get(maskOffset + cell / 8) & (1 << (cell % 8))) != 0;
+            into.numbers[cell / size][cell % size] = nibble + 1;
+            into.isGiven[cell / size][cell % size] = given;
+        }
+        into.setLevel(level);
+    }
+
+    /** Return a new Puzzle holding a random puzzle of the given level, or null if none */
+    public Puzzle random(int level, Random rand) {
+        long count = recordCount[level];
+        if (count == 0) {
+            return null;
+        }
+        long index = (count <= Integer.MAX_VALUE) ? rand.nextInt((int) count)
+                : Math.floorMod(rand.nextLong(), count);
+        Puzzle puzzle = new Puzzle(subgridSize, rand);
+        read(level, index, puzzle);
+        return puzzle;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Encode the puzzle as one record into buffer, starting at offset */
+    public static void encode(Puzzle puzzle, byte[] buffer, int offset) {
+        int cells = puzzle.size * puzzle.size;
+        int maskOffset = offset + (cells + 1) / 2;
+        Arrays.fill(buffer, offset, offset + recordSize(puzzle.subgridSize), (byte) 0);
+        for (int cell = 0; cell < cells; ++cell) {
+            int row = cell / puzzle.size;
+            int col = cell % puzzle.size;
+            int nibble = puzzle.numbers[row][col] - 1;
+            buffer[offset + cell / 2] |= ((cell & 1) == 0) ? nibble : nibble << 4;
+            if (puzzle.isGiven[row][col]) {
+                buffer[maskOffset + cell / 8] |= 1 << (cell % 8);
+            }
+        }
+    }
+
+    /**
+     * Writes a bank whose number of puzzles per level is known in advance. Each
+     * record is written at the next free slot of its level, so records may arrive in
+     * any order. On close, the header is updated with the number of records actually
+     * written. Not thread-safe: use it from one writer thread.
+     */
+    public static class Writer implements Closeable {
+        private final FileChannel channel;
+        private final int recordSize;
+        private final long[] firstRecord = new long[LEVEL_COUNT];
+        private final long[] nextRecord = new long[LEVEL_COUNT];
+        private final long[] endRecord = new long[LEVEL_COUNT];
+
+        /** Create the file, with countPerLevel records reserved for each level */
+        public Writer(Path file, int subgridSize, long countPerLevel) throws IOException {
+            if (subgridSize > 4) {
+                throw new IllegalArgumentException("A puzzle bank holds boards up to 16x16");
+            }
+            this.recordSize = recordSize(subgridSize);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putShort(VERSION).put((byte) subgridSize).put((byte) 0);
+            header.putInt(recordSize).putInt(LEVEL_COUNT).putInt(0);
+            for (int level = 0; level < LEVEL_COUNT; ++level) {
+                firstRecord[level] = level * countPerLevel;
+                nextRecord[level] = firstRecord[level];
+                endRecord[level] = firstRecord[level] + countPerLevel;
+                header.putLong(firstRecord[level]).putLong(countPerLevel);
+            }
+            header.flip();
+            channel.write(header, 0);
+        }
+
+        /** Write one record, already encoded at buffer[offset], for the given level */
+        public void write(int level, byte[] buffer, int offset) throws IOException {
+            if (nextRecord[level] == endRecord[level]) {
+                throw new IOException("Level " + level + " of the puzzle bank is full");
+            }
+            long position = HEADER_SIZE + nextRecord[level]++ * recordSize;
+            ByteBuffer record = ByteBuffer.wrap(buffer, offset, recordSize);
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                ByteBuffer counts = ByteBuffer.allocate(8);
+                for (int level = 0; level < LEVEL_COUNT; ++level) {
+                    counts.clear();
+                    counts.putLong(nextRecord[level] - firstRecord[level]).flip();
+                    channel.write(counts, LEVELS_OFFSET + 16 * level + 8);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /** Return true if the given file looks like a puzzle bank */
+    public static boolean isBank(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            channel.read(magic, 0);
+            magic.flip();
+            return magic.remaining() == 4 && magic.getInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * The PuzzlePool keeps a few ready-made puzzles for each difficulty level, so that
+ * "New Game" and "Restart Game" take one in O(1) instead of generating it on the
+ * Swing event thread.
+ *
+ * Each level has a bounded queue. Whenever a queue drops to LOW_WATER_MARK, a task
+ * on the shared worker executor refills it up to CAPACITY, one puzzle per task run:
+ * the task submits itself again after each puzzle, so the levels take turns on the
+ * workers. If a queue is empty when a puzzle is asked for, the puzzle is generated
+ * at once on a thread of its own, ahead of the refills, and handed back on the
+ * event thread, so the UI thread never waits for a generation.
+ *
+ * There is one pool per board size, obtained with forSize(). If a PuzzleBank built
+ * by SudokuBatch is found at bankFile(), puzzles are picked from it instead of being
+ * generated, which costs a few microseconds per puzzle.
+ */
+public class PuzzlePool {
+    public static final int CAPACITY = 4;        // puzzles kept per level
+    public static final int LOW_WATER_MARK = 1;  // refill when this few are left
+
+    // Worker threads refilling the queues, shared by all the pools; daemons so they
+    //  never keep the game alive
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "puzzle-pool");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+    // Threads generating a puzzle someone is waiting for: never queued behind refills
+    private static final ExecutorService ON_DEMAND = Executors.newCachedThreadPool(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "puzzle-take");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    private static final Map<Integer, PuzzlePool> POOLS = new HashMap<>();
+
+    private final int subgridSize;
+    private final List<ArrayBlockingQueue<Puzzle>> queues;
+    private final AtomicBoolean[] refilling;
+    // Each worker thread keeps its own generator for this board size
+    private final ThreadLocal<Puzzle> generator;
+    // Pre-generated puzzles for this board size, or null if there is no bank file
+    private final PuzzleBank bank;
+
+    /** Return the pool for boards of the given sub-grid size, creating it if needed */
+    public static synchronized PuzzlePool forSize(int subgridSize) {
+        PuzzlePool pool = POOLS.get(subgridSize);
+        if (pool == null) {
+            pool = new PuzzlePool(subgridSize);
+            POOLS.put(subgridSize, pool);
+        }
+        return pool;
+    }
+
+    private PuzzlePool(int subgridSize) {
+        this.subgridSize = subgridSize;
+        int levels = Puzzle.LEVEL_NAMES.length;
+        queues = new ArrayList<>(levels);
+        refilling = new AtomicBoolean[levels];
+        for (int level = 0; level < levels; ++level) {
+            queues.add(new ArrayBlockingQueue<>(CAPACITY));
+            refilling[level] = new AtomicBoolean();
+        }
+        generator = ThreadLocal.withInitial(() -> new Puzzle(subgridSize));
+        bank = openBank(subgridSize);
+        // Start filling every level right away
+        for (int level = 0; level < levels; ++level) {
+            refillIfLow(level);
+        }
+    }
+
+    /** Return a ready puzzle of the given level, or null if none is ready yet */
+    public Puzzle poll(int level) {
+        Puzzle puzzle = queues.get(level).poll();
+        refillIfLow(level);
+        return puzzle;
+    }
+
+    /**
+     * Hand a puzzle of the given level to onReady, on the event thread.
+     * onReady runs immediately when a puzzle is ready, otherwise later, once a
+     * worker has generated one.
+     */
+    public void take(int level, Consumer<Puzzle> onReady) {
+        Puzzle puzzle = poll(level);
+        if (puzzle != null) {
+            onReady.accept(puzzle);
+            return;
+        }
+        ON_DEMAND.execute(() -> {
+            Puzzle generated;
+            try {
+                generated = generate(level);
+            } catch (RuntimeException e) {
+                // Report it on the event thread, as if the puzzle had been generated there
+                SwingUtilities.invokeLater(() -> { throw e; });
+                return;
+            }
+            SwingUtilities.invokeLater(() -> onReady.accept(generated));
+        });
+    }
+
+    // Start a refill task if the queue of the level is low and none is running
+    private void refillIfLow(int level) {
+        if (queues.get(level).size() > LOW_WATER_MARK || !refilling[level].compareAndSet(false, true)) {
+            return;
+        }
+        WORKERS.execute(() -> refill(level));
+    }
+
+    // Add one puzzle to the queue of the level, then submit the task again (behind
+    //  the other levels' refills) until the queue is full
+    private void refill(int level) {
+        boolean more = false;
+        try {
+            ArrayBlockingQueue<Puzzle> queue = queues.get(level);
+            more = queue.remainingCapacity() > 0 && queue.offer(generate(level))
+                    && queue.remainingCapacity() > 0;
+        } finally {
+            if (more) {
+                WORKERS.execute(() -> refill(level));
+            } else {
+                refilling[level].set(false);
+            }
+        }
+    }
+
+    /** Return the bank file looked for by the pool of the given sub-grid size */
+    public static Path bankFile(int subgridSize) {
+        int size = subgridSize * subgridSize;
+        return Paths.get("sudoku-" + size + "x" + size + ".bank");
+    }
+
+    // Open the bank file of this board size, if there is a valid one
+    private static PuzzleBank openBank(int subgridSize) {
+        Path file = bankFile(subgridSize);
+        if (!PuzzleBank.isBank(file)) {
+            return null;
+        }
+        try {
+            PuzzleBank bank = PuzzleBank.open(file);
+            if (bank.getSubgridSize() == subgridSize) {
+                return bank;
+            }
+            bank.close();
+        } catch (IOException | RuntimeException e) {
+            // A damaged header can make the mapping fail with a RuntimeException too
+            System.err.println("Ignoring puzzle bank " + file + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    // Return a new puzzle of the level, from the bank when it has one, else generated
+    private Puzzle generate(int level) {
+        if (bank != null && bank.count(level) > 0) {
+            try {
+                return bank.random(level, ThreadLocalRandom.current());
+            } catch (RuntimeException e) {
+                // A record the bank can't read: generate this one instead
+                System.err.println("Couldn't read puzzle bank: " + e);
+            }
+        }
+        // Generate with this thread's generator and return an independent copy
+        Puzzle puzzle = generator.get();
+        puzzle.generate(level);
+        return puzzle.copy();
+    }
+
+    public int getSubgridSize() {
+        return subgridSize;
+    }
+}
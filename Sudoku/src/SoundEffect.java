@@ -8,22 +8,24 @@
  * 3 - 5026231081 - Oryza Reynaleta Wibowo
  */
 
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import java.io.File;
-
+/**
+ * Sound effects of the game, played by the AudioMixer on its single audio line.
+ * Each sound file is decoded the first time it is played and kept in the mixer's
+ * cache, so answering again only starts a voice.
+ */
 public class SoundEffect {
+    /** Volume levels of the sounds */
+    public static enum Volume {
+        MUTE, LOW, MEDIUM, HIGH
+    }
 
-    // Method to play a sound given the file path
+    public static Volume volume = Volume.HIGH;
+
+    // Method to play a sound given the file path (a classpath resource, else a file)
     public void playSound(String soundFile) {
-        try {
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new File(soundFile).getAbsoluteFile());
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioInputStream);
-            clip.start();
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (volume != Volume.MUTE) {
+            AudioMixer mixer = AudioMixer.getInstance();
+            mixer.play(mixer.load(soundFile), gainOf(volume));
         }
     }
 
@@ -36,4 +38,14 @@ public class SoundEffect {
     public void playWrongSound() {
         playSound("wrong.wav"); // Update with the correct path to your sound file
     }
-}
\ No newline at end of file
+
+    /** Return the gain (0 to 1) the sounds are played at for the volume */
+    public static float gainOf(Volume volume) {
+        switch (volume) {
+            case LOW:    return 0.5f;
+            case MEDIUM: return 0.75f;
+            case HIGH:   return 1.0f;
+            default:     return 0.0f;
+        }
+    }
+}
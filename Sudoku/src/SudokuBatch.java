@@ -0,0 +1,286 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless batch generator of Sudoku puzzles, to build puzzle banks offline.
+ *
+ * Usage: java SudokuBatch [-n count] [-o file] [-f text|bank] [-t threads] [-s subgridSize] [--scaling]
+ *   -n  puzzles per difficulty level (default 1000)
+ *   -o  output file (default puzzles.txt, or sudoku-9x9.bank for the bank format)
+ *   -f  output format: text lines (default) or a binary PuzzleBank
+ *   -t  worker threads (default: all cores)
+ *   -s  sub-grid size, 3 for 9x9, 4 for 16x16, 5 for 25x25 (default 3)
+ *   --scaling  also time the run with 1, 2, 4, ... threads, without writing
+ *
+ * The puzzles are generated on a work-stealing ForkJoinPool. Each worker thread has
+ * its own Puzzle and random generator, so nothing is shared between them. Finished
+ * chunks are queued to a writer thread that streams them to the output file, one
+ * line per puzzle: the level, a tab, then the cells in row-major order with '.' for
+ * a cell to guess. Digits above 9 are written as letters (A = 10, B = 11, ...).
+ * With the bank format, each puzzle is one PuzzleBank record instead.
+ */
+public class SudokuBatch {
+    // Puzzles generated by one leaf task before it hands its lines to the writer
+    private static final int CHUNK_SIZE = 64;
+    // Marks the end of the output for the writer thread
+    private static final Chunk END_OF_OUTPUT = new Chunk(0, 0);
+
+    private final int count;
+    // Each worker thread generates with its own Puzzle and random generator
+    private final ThreadLocal<Puzzle> generator;
+    private final AtomicLong generated = new AtomicLong();
+
+    public SudokuBatch(int count, int subgridSize) {
+        this.count = count;
+        this.generator = ThreadLocal.withInitial(
+                () -> new Puzzle(subgridSize, ThreadLocalRandom.current()));
+    }
+
+    /**
+     * Generate count puzzles per level on the given number of threads, and stream
+     * them as text to out (which may be null to only measure).
+     * Return the elapsed nanoseconds.
+     */
+    public long run(int threads, Writer out) throws IOException, InterruptedException {
+        return run(threads, out, null);
+    }
+
+    /** Same as run(), but stream the puzzles as records into a PuzzleBank */
+    public long run(int threads, PuzzleBank.Writer bank) throws IOException, InterruptedException {
+        return run(threads, null, bank);
+    }
+
+    private long run(int threads, Writer out, PuzzleBank.Writer bank) throws IOException, InterruptedException {
+        BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(4 * threads);
+        boolean write = out != null || bank != null;
+        WriterThread writer = write ? new WriterThread(out, bank, chunks) : null;
+        if (writer != null) {
+            writer.start();
+        }
+        generated.set(0);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new GenerateTask(0, count * Puzzle.LEVEL_NAMES.length, chunks,
+                    out != null, bank != null));
+        } finally {
+            pool.shutdown();
+            if (writer != null) {
+                stopWriter(writer, chunks);
+            }
+        }
+        if (writer != null && writer.failure != null) {
+            throw writer.failure;
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Tell the writer there is no more output, and wait until it has written the rest.
+    //  If this thread is interrupted, interrupt the writer too rather than leave it waiting
+    private static void stopWriter(WriterThread writer, BlockingQueue<Chunk> chunks) throws InterruptedException {
+        try {
+            chunks.put(END_OF_OUTPUT);
+            writer.join();
+        } catch (InterruptedException e) {
+            writer.interrupt();
+            throw e;
+        }
+    }
+
+    // The output of one leaf task: text lines, or bank records with their levels
+    private static class Chunk {
+        final StringBuilder text = new StringBuilder();
+        final int[] levels;
+        final byte[] records;
+        final int recordSize;
+
+        Chunk(int puzzles, int recordSize) {
+            this.recordSize = recordSize;
+            levels = new int[puzzles];
+            records = new byte[puzzles * recordSize];
+        }
+    }
+
+    // Generates the jobs [from, to); job j is puzzle (j % count) of level (j / count)
+    private class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from, to;
+        private final BlockingQueue<Chunk> chunks;
+        private final boolean text, records;
+
+        GenerateTask(int from, int to, BlockingQueue<Chunk> chunks, boolean text, boolean records) {
+            this.from = from;
+            this.to = to;
+            this.chunks = chunks;
+            this.text = text;
+            this.records = records;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new GenerateTask(from, mid, chunks, text, records),
+                        new GenerateTask(mid, to, chunks, text, records));
+                return;
+            }
+            Puzzle puzzle = generator.get();
+            int recordSize = PuzzleBank.recordSize(puzzle.subgridSize);
+            Chunk chunk = records ? new Chunk(to - from, recordSize) : new Chunk(0, 0);
+            for (int job = from; job < to; ++job) {
+                puzzle.generate(job / count);
+                if (text) {
+                    appendLine(chunk.text, puzzle);
+                }
+                if (records) {
+                    chunk.levels[job - from] = puzzle.getLevel();
+                    PuzzleBank.encode(puzzle, chunk.records, (job - from) * recordSize);
+                }
+            }
+            generated.addAndGet(to - from);
+            if (text || records) {
+                try {
+                    chunks.put(chunk);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // Write one puzzle as "level<TAB>cells"
+    private static void appendLine(StringBuilder lines, Puzzle puzzle) {
+        lines.append(puzzle.getLevel()).append('\t');
+        for (int row = 0; row < puzzle.size; ++row) {
+            for (int col = 0; col < puzzle.size; ++col) {
+                lines.append(puzzle.isGiven[row][col]
+                        ? Character.toUpperCase(Character.forDigit(puzzle.numbers[row][col], 36))
+                        : '.');
+            }
+        }
+        lines.append('\n');
+    }
+
+    // Drains the queue of finished chunks into the output
+    private static class WriterThread extends Thread {
+        private final Writer out;
+        private final PuzzleBank.Writer bank;
+        private final BlockingQueue<Chunk> chunks;
+        private volatile IOException failure;
+
+        WriterThread(Writer out, PuzzleBank.Writer bank, BlockingQueue<Chunk> chunks) {
+            super("puzzle-writer");
+            this.out = out;
+            this.bank = bank;
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (Chunk chunk = chunks.take(); chunk != END_OF_OUTPUT; chunk = chunks.take()) {
+                    if (failure == null) {
+                        try {
+                            write(chunk);
+                        } catch (IOException e) {
+                            failure = e; // Keep draining so the workers never block
+                        }
+                    }
+                }
+                if (out != null) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void write(Chunk chunk) throws IOException {
+            if (out != null) {
+                out.write(chunk.text.toString());
+            }
+            if (bank != null) {
+                for (int i = 0; i < chunk.levels.length; ++i) {
+                    bank.write(chunk.levels[i], chunk.records, i * chunk.recordSize);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int count = 1000;
+        String output = null;
+        boolean bankFormat = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int subgridSize = SudokuConstants.SUBGRID_SIZE;
+        boolean scaling = false;
+        for (int i = 0; i < args.length; ++i) {
+            switch (args[i]) {
+                case "-n": count = Integer.parseInt(args[++i]); break;
+                case "-o": output = args[++i]; break;
+                case "-f": bankFormat = args[++i].equals("bank"); break;
+                case "-t": threads = Integer.parseInt(args[++i]); break;
+                case "-s": subgridSize = Integer.parseInt(args[++i]); break;
+                case "--scaling": scaling = true; break;
+                default:
+                    System.err.println("Usage: java SudokuBatch [-n count] [-o file] [-f text|bank] [-t threads] [-s subgridSize] [--scaling]");
+                    System.exit(1);
+            }
+        }
+
+        SudokuBatch batch = new SudokuBatch(count, subgridSize);
+        long total = (long) count * Puzzle.LEVEL_NAMES.length;
+
+        if (scaling) {
+            System.out.println("threads  seconds  puzzles/sec  speedup");
+            double base = 0;
+            for (int t = 1; ; t = Math.min(t * 2, threads)) {
+                double seconds = batch.run(t, (Writer) null) / 1e9;
+                double rate = total / seconds;
+                if (t == 1) base = rate;
+                System.out.printf("%7d  %7.2f  %11.0f  %6.2fx%n", t, seconds, rate, rate / base);
+                if (t == threads) break;
+            }
+        }
+
+        double seconds;
+        if (bankFormat) {
+            if (output == null) {
+                output = PuzzlePool.bankFile(subgridSize).toString();
+            }
+            try (PuzzleBank.Writer bank = new PuzzleBank.Writer(Paths.get(output), subgridSize, count)) {
+                seconds = batch.run(threads, bank) / 1e9;
+            }
+        } else {
+            if (output == null) {
+                output = "puzzles.txt";
+            }
+            try (Writer out = new BufferedWriter(new FileWriter(output))) {
+                seconds = batch.run(threads, out) / 1e9;
+            }
+        }
+        System.out.printf("Generated %d puzzles on %d threads in %.2f s (%.0f puzzles/sec) into %s%n",
+                batch.generated.get(), threads, seconds, total / seconds, output);
+    }
+}
@@ -9,8 +9,10 @@
  */
 
 public class SudokuConstants {
-    /** Size of the board */
+    /** Size of the default board */
     public static final int GRID_SIZE = 9;
-    /** Size of sub-grid of the board */
+    /** Size of sub-grid of the default board */
     public static final int SUBGRID_SIZE = 3;
+    /** Sub-grid sizes the player can choose from, for 9x9, 16x16 and 25x25 boards */
+    public static final int[] SUBGRID_SIZES = {3, 4, 5};
 }
@@ -78,6 +78,33 @@ public class SudokuMain extends JFrame {
         });
         fileMenu.add(newGameItem);
 
+        // Hint Menu Item: fill in the next cell that can be deduced
+        JMenuItem hintItem = new JMenuItem("Hint");
+        hintItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_H, InputEvent.CTRL_DOWN_MASK));
+        hintItem.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                board.showHint();
+            }
+        });
+        fileMenu.add(hintItem);
+
+        // Board Size sub-menu: 9x9, 16x16 or 25x25
+        JMenu sizeMenu = new JMenu("Board Size");
+        ButtonGroup sizeGroup = new ButtonGroup();
+        for (final int subgridSize : SudokuConstants.SUBGRID_SIZES) {
+            int size = subgridSize * subgridSize;
+            JRadioButtonMenuItem sizeItem = new JRadioButtonMenuItem(size + "x" + size,
+                    subgridSize == SudokuConstants.SUBGRID_SIZE);
+            sizeItem.addActionListener(new ActionListener() {
+                public void actionPerformed(ActionEvent e) {
+                    changeBoardSize(subgridSize);
+                }
+            });
+            sizeGroup.add(sizeItem);
+            sizeMenu.add(sizeItem);
+        }
+        fileMenu.add(sizeMenu);
+
         // Exit Menu Item
         JMenuItem exitItem = new JMenuItem("Exit");
         exitItem.addActionListener(new ActionListener() {
@@ -148,6 +175,18 @@ public class SudokuMain extends JFrame {
         homeDialog.setVisible(true);
     }
 
+    // Replace the game board by a new one of the given sub-grid size, and start a new game
+    private void changeBoardSize(int subgridSize) {
+        Container cp = getContentPane();
+        cp.remove(board);
+        board = new GameBoardPanel(this, subgridSize);
+        cp.add(board, BorderLayout.CENTER);
+        board.newGame();
+        resetScore();
+        pack();
+        setLocationRelativeTo(null);
+    }
+
     // Update the score
     public void updateScore(int points) {
         score += points;
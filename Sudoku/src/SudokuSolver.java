@@ -0,0 +1,33 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.function.Consumer;
+
+/**
+ * Common interface of the Sudoku solvers, so that Puzzle and the tools can use
+ * any of them interchangeably.
+ * A grid is a size-by-size array of numbers where 0 marks an empty cell.
+ * A solver may reuse its internal storage across calls, so an instance shall
+ * not be shared between threads.
+ */
+public interface SudokuSolver {
+    /** Solve the grid in place. Return false (grid unchanged) if it has no solution */
+    boolean solve(int[][] grid);
+
+    /** Return the number of solutions of the grid, counting at most up to limit */
+    int countSolutions(int[][] grid, int limit);
+
+    /**
+     * Pass each solution of the grid (at most limit of them) to the listener and
+     * return how many were found. The array given to the listener is reused for the
+     * next solution, so copy it if it must be kept. The grid itself is unchanged.
+     */
+    int enumerate(int[][] grid, int limit, Consumer<int[][]> listener);
+}
@@ -12,25 +12,73 @@
  * Abstract superclass for all AI players with different strategies.
  * To construct an AI player:
  * 1. Construct an instance (of its subclass) with the game Board
- * 2. Call move() which returns the next move in an int[2] array of {row, col}.
+ * 2. Call setSeed() to set the computer's seed
+ * 3. Optionally call setThreads() to let the search run on several threads
+ * 4. Call move() which returns the next move in an int[2] array of {row, col}.
  *
  * The implementation subclasses need to override abstract method move().
  * They shall not modify Cell[][], i.e., no side effect expected.
  * Assume that next move is available, i.e., not game-over yet.
  */
 public abstract class AIPlayer {
-    protected int ROWS = Board.ROWS;  // number of rows
-    protected int COLS = Board.COLS;  // number of columns
+    protected int ROWS;  // number of rows
+    protected int COLS;  // number of columns
 
+    protected Board board;    // the game board
     protected Cell[][] cells; // the board's ROWS-by-COLS array of Cells
     protected Seed mySeed;    // computer's seed
     protected Seed oppSeed;   // opponent's seed
+    protected int threads = 1; // threads the search may use
 
     /** Constructor with reference to game board */
     public AIPlayer(Board board) {
+        setBoard(board);
+    }
+
+    /** Play on another board from now on, e.g. a copy of the game board taken for
+     * a move searched on another thread */
+    public void setBoard(Board board) {
+        this.board = board;
+        ROWS = board.rows;
+        COLS = board.cols;
         cells = board.cells;
     }
 
+    /** Set/change the seed used by computer and opponent */
+    public void setSeed(Seed seed) {
+        this.mySeed = seed;
+        oppSeed = (mySeed == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+    }
+
+    /** Set the number of threads the search may use, each on its own copy of the
+     * game: 1 (the default) searches on the calling thread only. Players whose
+     * search is instant ignore it */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.threads = threads;
+    }
+
+    /** Return the stone of the board's MNKGame matching the seed */
+    protected static int stoneOf(Seed seed) {
+        return (seed == Seed.CROSS) ? MNKGame.FIRST : MNKGame.SECOND;
+    }
+
+    /** Return the cells holding seed as a bitboard: bit (row * COLS + col) per cell.
+     * Only for boards of up to 32 cells */
+    protected int bitboard(Seed seed) {
+        int mask = 0;
+        for (int row = 0; row < ROWS; ++row) {
+            for (int col = 0; col < COLS; ++col) {
+                if (cells[row][col].content == seed) {
+                    mask |= 1 << (row * COLS + col);
+                }
+            }
+        }
+        return mask;
+    }
+
     /** Abstract method to get next move. Return int[2] of {row, col} */
     abstract int[] move();  // to be implemented by subclasses
 }
\ No newline at end of file
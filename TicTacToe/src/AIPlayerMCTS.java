@@ -0,0 +1,451 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * AIPlayer for any m,n,k-game using Monte Carlo Tree Search with UCT: instead of
+ * evaluating positions, it plays many random games (playouts) and grows a tree
+ * towards the moves that win most often, balancing the best moves so far against
+ * the moves tried least (the UCB1 formula).
+ *
+ * Each tree keeps its nodes in primitive arrays, the children of a node next to
+ * each other, so the search allocates nothing once set up. A node is expanded on
+ * its second visit, with the moves given by MNKGame.generateMoves(). Playouts run
+ * on a byte per cell and a list of the empty cells, and check a win from the
+ * placed stone only.
+ *
+ * The search stops after the given number of playouts or at the time limit,
+ * whichever comes first. It runs on several threads by root parallelization: each
+ * thread grows its own tree, and the root moves are chosen by their visits summed
+ * over all trees. Between two moves each tree keeps the subtree of the position
+ * reached, if both moves played since are in it.
+ */
+public class AIPlayerMCTS extends AIPlayer {
+    /** Time to think per move by default, in milliseconds */
+    public static final long DEFAULT_TIME_LIMIT = 1000;
+    /** Nodes of each tree by default */
+    public static final int DEFAULT_CAPACITY = 1 << 18;
+
+    // Weight of the exploration term of UCB1
+    private static final double EXPLORATION = Math.sqrt(2);
+    // Playouts between two looks at the clock
+    private static final int CHECK_INTERVAL = 64;
+
+    // Threads running the trees other than the first, shared by all the players
+    private static final ExecutorService WORKERS = Executors.newCachedThreadPool(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "MCTS worker");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final int playouts;   // 0 for no limit
+    private final long timeLimit; // 0 for no limit
+    private Tree[] trees;
+    private int treesSearched;    // trees searched for the last move, from trees[0]
+
+    /** Constructor with the given game board, thinking DEFAULT_TIME_LIMIT per move
+     * on every core */
+    public AIPlayerMCTS(Board board) {
+        this(board, 0, DEFAULT_TIME_LIMIT, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Constructor with the given game board, the playouts and time (ms) per move
+     * (0 for no limit, but not both) and the number of threads */
+    public AIPlayerMCTS(Board board, int playouts, long timeLimit, int threads) {
+        super(board);
+        if (playouts <= 0 && timeLimit <= 0) {
+            throw new IllegalArgumentException("No limit on the search");
+        }
+        this.playouts = playouts;
+        this.timeLimit = timeLimit;
+        setThreads(threads);
+    }
+
+    /** Set the number of trees searched in parallel, one per thread. The trees kept
+     * from the previous moves are dropped */
+    @Override
+    public void setThreads(int threads) {
+        super.setThreads(threads);
+        trees = new Tree[threads];
+        treesSearched = 0;
+        for (int i = 0; i < threads; ++i) {
+            trees[i] = new Tree(DEFAULT_CAPACITY, System.nanoTime() + 0x9E3779B97F4A7C15L * (i + 1));
+        }
+    }
+
+    /** Get next best move for computer. Return int[2] of {row, col} */
+    @Override
+    int[] move() {
+        final MNKGame game = new MNKGame(board.game);
+        if (game.isFull()) {
+            throw new IllegalStateException("Invalid board state: no empty cells or corrupted game state!");
+        }
+        final int player = stoneOf(mySeed);
+        final long deadline = (timeLimit > 0) ? System.nanoTime() + timeLimit * 1000000L : Long.MAX_VALUE;
+
+        // With a playout limit, search no more trees than playouts, so that each gets
+        //  at least one: a share of 0 would mean no limit
+        final int searched = (playouts > 0) ? Math.min(trees.length, playouts) : trees.length;
+        treesSearched = searched;
+        // The first tree is searched on this thread, the others on the workers
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i < searched; ++i) {
+            final Tree tree = trees[i];
+            final int share = playouts / searched;
+            futures.add(WORKERS.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    tree.search(new MNKGame(game), player, share, deadline);
+                    return null;
+                }
+            }));
+        }
+        trees[0].search(game, player, playouts - (playouts / searched) * (searched - 1), deadline);
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            // Search cancelled: stop the workers, the move won't be played anyway
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("MCTS worker failed", e.getCause());
+        }
+
+        // Play the root move visited most over all the trees searched
+        int[] visits = new int[game.cellCount];
+        for (int i = 0; i < searched; ++i) {
+            trees[i].addRootVisits(visits);
+        }
+        int best = -1;
+        for (int cell = 0; cell < game.cellCount; ++cell) {
+            if (game.get(cell) == MNKGame.EMPTY && (best < 0 || visits[cell] > visits[best])) {
+                best = cell;
+            }
+        }
+        return new int[]{best / COLS, best % COLS};
+    }
+
+    /** Return the number of playouts of the last move, over all the trees */
+    public long getPlayouts() {
+        long total = 0;
+        for (int i = 0; i < treesSearched; ++i) {
+            total += trees[i].playoutCount;
+        }
+        return total;
+    }
+
+    /**
+     * A search tree, grown by one thread. Node 0 is the root; a node holds the cell
+     * played to reach it, its visits, and the wins for the player who played it
+     * (a draw counts half).
+     */
+    private static final class Tree {
+        // Outcome of the move into a node, once known
+        private static final byte OPEN = 0;
+        private static final byte WON = 1;
+        private static final byte DRAWN = 2;
+
+        private final int capacity;
+        private int size;
+        private int[] move, firstChild, childCount, visits;
+        private float[] wins;
+        private byte[] outcome;
+        // Second set of arrays, to move a subtree to the root
+        private int[] spareMove, spareFirstChild, spareChildCount, spareVisits, source;
+        private float[] spareWins;
+        private byte[] spareOutcome;
+
+        // Position at the root, to find the moves played since the last search
+        private byte[] rootStones;
+        private int rootPlayer;
+
+        // Buffers of the search, sized for the board on first use
+        private int[] path, placed, moves, empties;
+        private byte[] stones;
+        private long seed;
+        long playoutCount;
+
+        Tree(int capacity, long seed) {
+            this.capacity = capacity;
+            this.seed = (seed == 0) ? 1 : seed;
+            move = new int[capacity];
+            firstChild = new int[capacity];
+            childCount = new int[capacity];
+            visits = new int[capacity];
+            wins = new float[capacity];
+            outcome = new byte[capacity];
+            spareMove = new int[capacity];
+            spareFirstChild = new int[capacity];
+            spareChildCount = new int[capacity];
+            spareVisits = new int[capacity];
+            spareWins = new float[capacity];
+            spareOutcome = new byte[capacity];
+            source = new int[capacity];
+        }
+
+        /** Search the game for player, who is to move, for the given playouts
+         * (0 for no limit) or until the deadline or an interrupt */
+        void search(MNKGame game, int player, int playouts, long deadline) {
+            if (stones == null || stones.length != game.cellCount) {
+                path = new int[game.cellCount + 1];
+                placed = new int[game.cellCount];
+                moves = new int[game.cellCount];
+                empties = new int[game.cellCount];
+                stones = new byte[game.cellCount];
+                rootStones = null;
+            }
+            reuse(game, player);
+            if (childCount[0] == 0) {
+                expand(0, game);
+            }
+            playoutCount = 0;
+            while (playouts <= 0 || playoutCount < playouts) {
+                if (playoutCount % CHECK_INTERVAL == 0
+                        && (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted())) {
+                    break;
+                }
+                iterate(game, player);
+                playoutCount++;
+            }
+        }
+
+        /** Add the visits of each root move into visits, indexed by cell */
+        void addRootVisits(int[] visits) {
+            for (int c = firstChild[0]; c < firstChild[0] + childCount[0]; ++c) {
+                visits[move[c]] += this.visits[c];
+            }
+        }
+
+        // One iteration: select down the tree, expand, play out, and back up the result
+        private void iterate(MNKGame game, int player) {
+            int node = 0;
+            int depth = 0;
+            int mover = player;  // player to move at node
+            path[0] = 0;
+            int winner;
+            while (true) {
+                if (outcome[node] == WON) {
+                    winner = MNKGame.opponent(mover);
+                    break;
+                }
+                if (outcome[node] == DRAWN) {
+                    winner = MNKGame.EMPTY;
+                    break;
+                }
+                if (childCount[node] == 0 && (visits[node] == 0 || !expand(node, game))) {
+                    winner = playout(game, mover);
+                    break;
+                }
+                node = select(node);
+                if (game.place(move[node], mover)) {
+                    outcome[node] = WON;
+                } else if (game.isFull()) {
+                    outcome[node] = DRAWN;
+                }
+                placed[depth] = move[node];
+                path[++depth] = node;
+                mover = MNKGame.opponent(mover);
+            }
+            for (int i = depth - 1; i >= 0; --i) {
+                game.undo(placed[i]);
+            }
+
+            // Node at depth d was played by player when d is odd
+            for (int d = depth; d >= 0; --d) {
+                int n = path[d];
+                visits[n]++;
+                int movedBy = (d % 2 == 1) ? player : MNKGame.opponent(player);
+                if (winner == movedBy) {
+                    wins[n] += 1;
+                } else if (winner == MNKGame.EMPTY) {
+                    wins[n] += 0.5f;
+                }
+            }
+        }
+
+        // Return the child of node with the best UCB1 value; a winning move at once
+        private int select(int node) {
+            double logVisits = Math.log(visits[node]);
+            int best = -1;
+            double bestValue = -1;
+            for (int c = firstChild[node]; c < firstChild[node] + childCount[node]; ++c) {
+                if (visits[c] == 0 || outcome[c] == WON) {
+                    return c;
+                }
+                double value = wins[c] / visits[c] + EXPLORATION * Math.sqrt(logVisits / visits[c]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        // Add the children of node, in the game at node. Return false if the tree is full
+        private boolean expand(int node, MNKGame game) {
+            int count = game.generateMoves(moves);
+            if (size + count > capacity) {
+                return false;
+            }
+            firstChild[node] = size;
+            childCount[node] = count;
+            for (int i = 0; i < count; ++i) {
+                clearNode(size++, moves[i]);
+            }
+            return true;
+        }
+
+        private void clearNode(int node, int cell) {
+            move[node] = cell;
+            firstChild[node] = 0;
+            childCount[node] = 0;
+            visits[node] = 0;
+            wins[node] = 0;
+            outcome[node] = OPEN;
+        }
+
+        // Play random moves from the game, mover to move, to the end. Return the winner
+        private int playout(MNKGame game, int mover) {
+            int count = 0;
+            for (int cell = 0; cell < game.cellCount; ++cell) {
+                stones[cell] = (byte) game.get(cell);
+                if (stones[cell] == MNKGame.EMPTY) {
+                    empties[count++] = cell;
+                }
+            }
+            while (count > 0) {
+                // Take a random empty cell out of the list
+                seed ^= seed << 13;
+                seed ^= seed >>> 7;
+                seed ^= seed << 17;
+                int i = (int) ((seed >>> 33) % count);
+                int cell = empties[i];
+                empties[i] = empties[--count];
+                stones[cell] = (byte) mover;
+                if (isWin(game, cell)) {
+                    return mover;
+                }
+                mover = MNKGame.opponent(mover);
+            }
+            return MNKGame.EMPTY;
+        }
+
+        // Return true if the stone on the cell completes a line, in the playout stones
+        private boolean isWin(MNKGame game, int cell) {
+            int cols = game.cols, rows = game.rows;
+            int row = cell / cols, col = cell % cols;
+            byte player = stones[cell];
+            for (int dir = 0; dir < 4; ++dir) {
+                int dr = (dir == 0) ? 0 : 1;
+                int dc = (dir == 1) ? 0 : (dir == 3) ? -1 : 1;
+                int count = 1;
+                for (int side = -1; side <= 1; side += 2) {
+                    int r = row + side * dr, c = col + side * dc;
+                    while (r >= 0 && r < rows && c >= 0 && c < cols && stones[r * cols + c] == player) {
+                        count++;
+                        r += side * dr;
+                        c += side * dc;
+                    }
+                }
+                if (count >= game.winLength) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Make the root match the game: keep the subtree of the moves played since
+        // the last search if it can be found, else start a new tree
+        private void reuse(MNKGame game, int player) {
+            int node = -1;
+            if (rootStones != null) {
+                node = 0;
+                int mover = rootPlayer;
+                int added = 0;
+                for (int cell = 0; cell < game.cellCount && node >= 0; ++cell) {
+                    if (rootStones[cell] == MNKGame.EMPTY) {
+                        added += (game.get(cell) == MNKGame.EMPTY) ? 0 : 1;
+                    } else if (rootStones[cell] != game.get(cell)) {
+                        node = -1; // Not a later position of the same game
+                    }
+                }
+                // Follow the new stones, alternating players; at most one of each
+                if (added > 2 || mover != ((added % 2 == 0) ? player : MNKGame.opponent(player))) {
+                    node = -1;
+                }
+                for (int step = 0; step < added && node >= 0; ++step) {
+                    int next = -1;
+                    for (int c = firstChild[node]; c < firstChild[node] + childCount[node]; ++c) {
+                        if (rootStones[move[c]] == MNKGame.EMPTY && game.get(move[c]) == mover) {
+                            next = c;
+                            break;
+                        }
+                    }
+                    node = next;
+                    mover = MNKGame.opponent(mover);
+                }
+            }
+            if (node < 0) {
+                size = 1;
+                clearNode(0, -1);
+            } else if (node > 0) {
+                moveToRoot(node);
+            }
+            if (rootStones == null) {
+                rootStones = new byte[game.cellCount];
+            }
+            for (int cell = 0; cell < game.cellCount; ++cell) {
+                rootStones[cell] = (byte) game.get(cell);
+            }
+            rootPlayer = player;
+        }
+
+        // Copy the subtree of node, breadth first, into the spare arrays as the new
+        // tree, and swap them in
+        private void moveToRoot(int node) {
+            source[0] = node;
+            int newSize = 1;
+            for (int i = 0; i < newSize; ++i) {
+                int old = source[i];
+                spareMove[i] = move[old];
+                spareVisits[i] = visits[old];
+                spareWins[i] = wins[old];
+                spareOutcome[i] = outcome[old];
+                spareChildCount[i] = childCount[old];
+                spareFirstChild[i] = (childCount[old] > 0) ? newSize : 0;
+                for (int k = 0; k < childCount[old]; ++k) {
+                    source[newSize++] = firstChild[old] + k;
+                }
+            }
+            size = newSize;
+            int[] tmp = move; move = spareMove; spareMove = tmp;
+            tmp = visits; visits = spareVisits; spareVisits = tmp;
+            tmp = firstChild; firstChild = spareFirstChild; spareFirstChild = tmp;
+            tmp = childCount; childCount = spareChildCount; spareChildCount = tmp;
+            float[] tmpWins = wins; wins = spareWins; spareWins = tmpWins;
+            byte[] tmpOutcome = outcome; outcome = spareOutcome; spareOutcome = tmpOutcome;
+        }
+    }
+}
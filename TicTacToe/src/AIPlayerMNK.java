@@ -0,0 +1,338 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIPlayer for any m,n,k-game, using Minimax with alpha-beta pruning on a copy of
+ * the board's MNKGame.
+ *
+ * The search is iterative deepening under a time limit: it searches 1 ply, then 2,
+ * and so on until the time is up or the game tree is exhausted. Each iteration
+ * first follows the principal variation (the line of best moves) of the previous
+ * one, which makes the cutoffs come early. When the time runs out in the middle of
+ * an iteration, the best move among the root moves already searched is kept: the
+ * first of them is the previous best move, so it is never worse.
+ *
+ * With setThreads(), the root moves are split between threads of a fork-join pool.
+ * The first root move is searched alone to set the bound to beat, then each thread
+ * takes the next root move not yet taken, on its own copy of the game, and raises
+ * the shared bound as it finds better moves.
+ *
+ * Moves are made and taken back with place() and undo(), which update the window
+ * counts of the moved cell only, so the evaluation at the leaves is read from the
+ * running totals rather than by scanning the board. Only the cells next to a stone
+ * are searched on large boards (see MNKGame.generateMoves()).
+ */
+public class AIPlayerMNK extends AIPlayer {
+    /** Time to think per move by default, in milliseconds */
+    public static final long DEFAULT_TIME_LIMIT = 1000;
+
+    // Score of a win, above any evaluation; a quicker win scores more
+    private static final int WIN = 100000000;
+    private static final int INFINITY = Integer.MAX_VALUE;
+    // Score of each threat (one move from winning) on top of the windows
+    private static final int THREAT = 1000;
+    // Nodes searched between two looks at the clock
+    private static final int CHECK_INTERVAL = 1024;
+
+    // Pool searching the root moves in parallel, shared by all the players
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private final long timeLimit;
+
+    // State of the current search, shared by its threads
+    private volatile boolean timeUp;
+    private long deadline;
+    private Thread caller;           // interrupted when the search is cancelled
+    private int[] previousPv;        // best line of the previous iteration
+    private int previousPvLength;
+    private int depthReached;
+    private long nodes;
+
+    /** Constructor with the given game board, thinking DEFAULT_TIME_LIMIT per move */
+    public AIPlayerMNK(Board board) {
+        this(board, DEFAULT_TIME_LIMIT);
+    }
+
+    /** Constructor with the given game board and time to think per move (ms) */
+    public AIPlayerMNK(Board board, long timeLimit) {
+        super(board);
+        this.timeLimit = timeLimit;
+    }
+
+    /** Get next best move for computer. Return int[2] of {row, col} */
+    @Override
+    int[] move() {
+        MNKGame game = new MNKGame(board.game);
+        if (game.isFull()) {
+            throw new IllegalStateException("Invalid board state: no empty cells or corrupted game state!");
+        }
+        int cell = bestMove(game, stoneOf(mySeed));
+        return new int[]{cell / COLS, cell % COLS};
+    }
+
+    /** Return the depth of the last search, counting a partly searched iteration */
+    public int getDepthReached() {
+        return depthReached;
+    }
+
+    /** Return the positions searched by the last search, over all its threads */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** Return the best cell for player in the game found within the time limit */
+    int bestMove(MNKGame game, int player) {
+        deadline = System.nanoTime() + timeLimit * 1000000L;
+        caller = Thread.currentThread();
+        timeUp = false;
+        int maxDepth = game.cellCount - game.getMoveCount();
+        previousPv = new int[maxDepth + 1];
+        previousPvLength = 0;
+        Searcher[] searchers = new Searcher[threads];
+        for (int i = 0; i < threads; ++i) {
+            searchers[i] = new Searcher(new MNKGame(game), maxDepth);
+        }
+        Searcher main = searchers[0];
+
+        int[] rootMoves = new int[game.cellCount];
+        int count = game.generateMoves(rootMoves);
+        int bestMove = rootMoves[0];
+        depthReached = 0;
+        for (int depth = 1; depth <= maxDepth && !timeUp; ++depth) {
+            Root root = new Root(rootMoves, count, previousPvLength > 0 ? previousPv[0] : -1);
+            // The previous best move alone, on this thread, then the others on all threads
+            main.followPv = true;
+            main.searchRoot(root, 0, depth, player);
+            if (threads > 1 && !timeUp) {
+                List<Future<?>> helpers = new ArrayList<>();
+                for (int i = 1; i < threads; ++i) {
+                    final Searcher helper = searchers[i];
+                    final int d = depth;
+                    helpers.add(POOL.submit(() -> helper.searchRoots(root, d, player)));
+                }
+                try {
+                    main.searchRoots(root, depth, player);
+                } catch (RuntimeException | Error e) {
+                    timeUp = true; // Stop the helpers before failing
+                    awaitAll(helpers);
+                    throw e;
+                }
+                Throwable failure = awaitAll(helpers);
+                if (failure != null) {
+                    throw new IllegalStateException("Search thread failed", failure);
+                }
+            } else {
+                main.searchRoots(root, depth, player);
+            }
+            if (root.bestLength == 0) {
+                break; // Out of time before the first root move was searched
+            }
+            bestMove = root.bestLine[0];
+            depthReached = depth;
+            System.arraycopy(root.bestLine, 0, previousPv, 0, root.bestLength);
+            previousPvLength = root.bestLength;
+            if (Math.abs(root.bestScore) > WIN - maxDepth - 1) {
+                break; // Won or lost by force: searching deeper won't change it
+            }
+        }
+        nodes = 0;
+        for (Searcher searcher : searchers) {
+            nodes += searcher.nodes;
+        }
+        return bestMove;
+    }
+
+    // Wait until every helper has stopped, so that none still searches when the next
+    //  bestMove() resets timeUp. An interrupt ends the search, not the wait: the
+    //  helpers stop at their next clock check, and the interrupt is set again once
+    //  they all have. Return what the first failed helper threw, or null
+    private Throwable awaitAll(List<Future<?>> helpers) {
+        boolean interrupted = false;
+        Throwable failure = null;
+        for (Future<?> helper : helpers) {
+            while (true) {
+                try {
+                    helper.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    timeUp = true; // Cancelled
+                } catch (ExecutionException e) {
+                    if (failure == null) failure = e.getCause();
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return failure;
+    }
+
+    /** The root moves of one iteration, handed out to the threads one at a time,
+     * and the best of them found so far */
+    private static final class Root {
+        final int[] moves;
+        final int count;
+        final AtomicInteger next = new AtomicInteger(1);  // move 0 is searched first, alone
+        int bestScore = -INFINITY;
+        int[] bestLine;
+        int bestLength;
+
+        Root(int[] rootMoves, int count, int pvMove) {
+            moves = rootMoves.clone();
+            this.count = count;
+            bestLine = new int[moves.length + 1];
+            // Try the move of the previous best line first
+            for (int i = 0; i < count; ++i) {
+                if (moves[i] == pvMove) {
+                    moves[i] = moves[0];
+                    moves[0] = pvMove;
+                    break;
+                }
+            }
+        }
+
+        // Return the best score so far, the bound any other root move has to beat
+        synchronized int alpha() {
+            return bestScore;
+        }
+
+        // Keep the move and the line below it if they beat the best so far
+        synchronized void offer(int score, int move, int[] line, int length) {
+            if (score > bestScore) {
+                bestScore = score;
+                bestLine[0] = move;
+                System.arraycopy(line, 0, bestLine, 1, length);
+                bestLength = length + 1;
+            }
+        }
+    }
+
+    /** One thread of the search, with its own copy of the game and its own buffers */
+    private final class Searcher {
+        private final MNKGame game;
+        private final int[][] moves;    // move list of each ply
+        private final int[][] pv;       // best line found from each ply
+        private final int[] pvLength;
+        private boolean followPv;       // still on the previous best line
+        long nodes;
+
+        Searcher(MNKGame game, int maxDepth) {
+            this.game = game;
+            moves = new int[maxDepth + 1][game.cellCount];
+            pv = new int[maxDepth + 2][maxDepth + 1];
+            pvLength = new int[maxDepth + 2];
+        }
+
+        // Search the root moves not yet taken by another thread
+        void searchRoots(Root root, int depth, int player) {
+            for (int i = root.next.getAndIncrement(); i < root.count && !timeUp;
+                 i = root.next.getAndIncrement()) {
+                searchRoot(root, i, depth, player);
+            }
+        }
+
+        // Search root move i against the best root move so far
+        void searchRoot(Root root, int i, int depth, int player) {
+            int cell = root.moves[i];
+            int score;
+            if (game.place(cell, player)) {
+                score = WIN; // Wins the game
+                pvLength[1] = 0;
+            } else {
+                score = -minimax(depth - 1, 1, MNKGame.opponent(player), -INFINITY, -root.alpha());
+            }
+            game.undo(cell);
+            followPv = false;
+            if (!timeUp) { // The score of an unfinished search is meaningless
+                root.offer(score, cell, pv[1], pvLength[1]);
+            }
+        }
+
+        /** Minimax (recursive, negamax form) at level of depth with alpha-beta pruning.
+         * player is to move, ply moves from the root. Return the score for player,
+         * or 0 once the time is up. */
+        private int minimax(int depth, int ply, int player, int alpha, int beta) {
+            pvLength[ply] = 0;
+            // Stop at the deadline, or when the search is cancelled
+            if (++nodes % CHECK_INTERVAL == 0
+                    && (System.nanoTime() >= deadline || caller.isInterrupted())) {
+                timeUp = true;
+            }
+            if (timeUp) {
+                return 0;
+            }
+            if (game.isFull()) {
+                return 0; // Draw
+            }
+            if (depth == 0) {
+                return evaluate(game, player, ply);
+            }
+
+            int[] list = moves[ply];
+            int count = game.generateMoves(list);
+            // Try the move of the previous best line first
+            if (followPv && ply < previousPvLength) {
+                for (int i = 0; i < count; ++i) {
+                    if (list[i] == previousPv[ply]) {
+                        list[i] = list[0];
+                        list[0] = previousPv[ply];
+                        break;
+                    }
+                }
+            } else {
+                followPv = false;
+            }
+
+            int bestScore = -INFINITY;
+            for (int i = 0; i < count; ++i) {
+                int cell = list[i];
+                int score;
+                if (game.place(cell, player)) {
+                    score = WIN - ply; // Wins the game
+                    pvLength[ply + 1] = 0;
+                } else {
+                    score = -minimax(depth - 1, ply + 1, MNKGame.opponent(player), -beta, -alpha);
+                }
+                game.undo(cell);
+                followPv = false;
+                if (timeUp) {
+                    break; // The score of an unfinished search is meaningless
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    pv[ply][0] = cell;
+                    System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+                    pvLength[ply] = pvLength[ply + 1] + 1;
+                }
+                alpha = Math.max(alpha, bestScore);
+                if (alpha >= beta) break; // Alpha-beta pruning
+            }
+            return bestScore;
+        }
+    }
+
+    /** The heuristic evaluation function for player, who is to move: the windows
+     * of each player, and the threats the player has yet to block */
+    private static int evaluate(MNKGame game, int player, int ply) {
+        if (game.threats(player) > 0) {
+            return WIN - ply; // Wins on this move, as a win found by the search
+        }
+        return game.evaluate(player) - THREAT * game.threats(MNKGame.opponent(player));
+    }
+}
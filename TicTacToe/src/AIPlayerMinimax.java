@@ -8,218 +8,156 @@
  * 3 - 5026231081 - Oryza Reynaleta Wibowo
  */
 
-import java.util.*;
-
-/** AIPlayer using Minimax algorithm with alpha-beta pruning */
+/**
+ * AIPlayer using Minimax algorithm with alpha-beta pruning.
+ *
+ * The search runs on bitboards: one 9-bit int per player, with bit (row * COLS + col)
+ * set for each cell the player holds. A move is an OR, undoing it is free (the
+ * caller keeps its own masks), moves are generated by iterating over the bits of
+ * the empty cells, and a win is a mask test against winningPatterns. The Cell[][]
+ * of the Board is only read once per move(), and no object is allocated per node.
+ *
+ * The minimax is written in negamax form (each score is from the point of view of
+ * the player to move) and searches to the end of the game, so the AI plays
+ * perfectly. Results go to the shared TranspositionTable under the canonical form
+ * of the position, so transpositions and the 8 symmetric images of a position are
+ * searched once, for every game and every AI player.
+ */
 public class AIPlayerMinimax extends AIPlayer {
+    // All the 9 cells of the board
+    private static final int FULL = (1 << 9) - 1;
+    // Score of a win; a quicker win (more empty cells) scores more
+    private static final int WIN = 1000;
+    private static final int INFINITY = 1000000;
+
+    private static final int[] winningPatterns = {
+            0b111000000, 0b000111000, 0b000000111, // Rows
+            0b100100100, 0b010010010, 0b001001001, // Columns
+            0b100010001, 0b001010100               // Diagonals
+    };
+
+    private final TranspositionTable table;
 
     /** Constructor with the given game board */
     public AIPlayerMinimax(Board board) {
+        this(board, TranspositionTable.SHARED);
+    }
+
+    /** Constructor with the given game board and transposition table */
+    public AIPlayerMinimax(Board board, TranspositionTable table) {
         super(board);
+        this.table = table;
     }
 
     /** Get next best move for computer. Return int[2] of {row, col} */
     @Override
     int[] move() {
-        if (!isValidBoardState()) {
+        int mine = bitboard(mySeed);
+        int theirs = bitboard(oppSeed);
+        int empty = FULL & ~(mine | theirs);
+        if (empty == 0) {
             throw new IllegalStateException("Invalid board state: no empty cells or corrupted game state!");
         }
 
-        int[] result = minimax(2, mySeed, Integer.MIN_VALUE, Integer.MAX_VALUE); // depth, max-turn, alpha, beta
-        if (result[1] == -1 || result[2] == -1) { // Handle invalid moves from minimax
-            List<int[]> nextMoves = generateMoves();
-            if (!nextMoves.isEmpty()) {
-                int[] fallbackMove = nextMoves.get(0); // Fallback to the first valid move
-                System.err.println("AI fallback move: " + Arrays.toString(fallbackMove));
-                return fallbackMove;
-            } else {
-                throw new IllegalStateException("No valid moves available for AI!");
-            }
+        int bestMove = bestMove(mine, theirs);
+        if (bestMove < 0) { // Game already decided: play the first empty cell
+            bestMove = Integer.numberOfTrailingZeros(empty);
+            System.err.println("AI fallback move: " + bestMove);
         }
 
-        System.out.println("AI calculated move: " + Arrays.toString(new int[]{result[1], result[2]}));
-        return new int[]{result[1], result[2]}; // Return the valid move
+        int[] move = {bestMove / COLS, bestMove % COLS};
+        System.out.println("AI calculated move: [" + move[0] + ", " + move[1] + "]");
+        return move;
     }
 
-    /** Minimax (recursive) at level of depth for maximizing or minimizing player
-     * with alpha-beta pruning. Return int[3] of {score, row, col} */
-    private int[] minimax(int depth, Seed player, int alpha, int beta) {
-        if (depth == 0 || isCloseToEndGame()) {
-            return new int[]{evaluate(), -1, -1}; // Return evaluation if depth is zero or game close to end
-        }
-
-        List<int[]> nextMoves = generateMoves();
-        if (nextMoves.isEmpty()) { // No valid moves left
-            return new int[]{evaluate(), -1, -1};
-        }
-
-        int bestScore = (player == mySeed) ? Integer.MIN_VALUE : Integer.MAX_VALUE;
-        int currentScore;
-        int bestRow = -1;
-        int bestCol = -1;
-
-        for (int[] move : nextMoves) {
-            cells[move[0]][move[1]].content = player; // Try this move
-
-            if (player == mySeed) { // Maximizing player
-                currentScore = minimax(depth - 1, oppSeed, alpha, beta)[0];
-                if (currentScore > bestScore) {
-                    bestScore = currentScore;
-                    bestRow = move[0];
-                    bestCol = move[1];
-                }
-                alpha = Math.max(alpha, bestScore);
-            } else { // Minimizing player
-                currentScore = minimax(depth - 1, mySeed, alpha, beta)[0];
-                if (currentScore < bestScore) {
-                    bestScore = currentScore;
-                    bestRow = move[0];
-                    bestCol = move[1];
-                }
-                beta = Math.min(beta, bestScore);
-            }
-
-            cells[move[0]][move[1]].content = Seed.NO_SEED; // Undo move
-
-            if (alpha >= beta) break; // Alpha-beta pruning
-        }
-
-        return new int[]{bestScore, bestRow, bestCol};
-    }
-
-    /** Find all valid next moves.
-     * Return List of moves in int[2] of {row, col} or empty list if gameover */
-    private List<int[]> generateMoves() {
-        List<int[]> nextMoves = new ArrayList<>();
-
-        // If the game is over, return an empty list
-        if (hasWon(mySeed) || hasWon(oppSeed) || isBoardFull()) {
-            return nextMoves; // No moves available
-        }
-
-        // Generate all valid moves
-        for (int row = 0; row < ROWS; ++row) {
-            for (int col = 0; col < COLS; ++col) {
-                if (cells[row][col].content == Seed.NO_SEED) {
-                    nextMoves.add(new int[]{row, col});
-                }
+    /** Return the best cell for the player to move (bitboard mine), or -1 if the
+     * game is over */
+    int bestMove(int mine, int theirs) {
+        if (hasWon(mine) || hasWon(theirs) || (mine | theirs) == FULL) {
+            return -1;
+        }
+        // The root loop of minimax(), keeping the move rather than only its score
+        int empty = FULL & ~(mine | theirs);
+        int depth = Integer.bitCount(empty);
+        int alpha = -INFINITY;
+        int bestMove = -1;
+        for (int moves = empty; moves != 0; moves &= moves - 1) {
+            int cell = Integer.numberOfTrailingZeros(moves);
+            int score = -minimax(depth - 1, theirs, mine | (1 << cell), -INFINITY, -alpha);
+            if (score > alpha) {
+                alpha = score;
+                bestMove = cell;
             }
         }
-
-        return nextMoves;
+        return bestMove;
     }
 
-    /** The heuristic evaluation function for the current board
-     * Return +1000, +100, +10 for EACH 3-, 2-, 1-in-a-line for AI.
-     * Return -1000, -100, -10 for EACH 3-, 2-, 1-in-a-line for opponent. */
-    private int evaluate() {
-        int score = 0;
-
-        // Evaluate center position
-        if (cells[1][1].content == mySeed) {
-            score += 3; // Center is more valuable
-        } else if (cells[1][1].content == oppSeed) {
-            score -= 3;
-        }
-
-        // Evaluate all lines (rows, cols, diagonals)
-        score += evaluateLine(0, 0, 0, 1, 0, 2); // Row 0
-        score += evaluateLine(1, 0, 1, 1, 1, 2); // Row 1
-        score += evaluateLine(2, 0, 2, 1, 2, 2); // Row 2
-        score += evaluateLine(0, 0, 1, 0, 2, 0); // Col 0
-        score += evaluateLine(0, 1, 1, 1, 2, 1); // Col 1
-        score += evaluateLine(0, 2, 1, 2, 2, 2); // Col 2
-        score += evaluateLine(0, 0, 1, 1, 2, 2); // Diagonal
-        score += evaluateLine(0, 2, 1, 1, 2, 0); // Alternate diagonal
-
-        return score;
+    /** Search the position to the end of the game. Return the score for the player
+     * to move (bitboard mine): positive if they win, 0 for a draw, negative if they lose */
+    int solve(int mine, int theirs) {
+        int empty = FULL & ~(mine | theirs);
+        return minimax(Integer.bitCount(empty), mine, theirs, -INFINITY, INFINITY);
     }
 
-    /** The heuristic evaluation function for the given line of 3 cells */
-    private int evaluateLine(int row1, int col1, int row2, int col2, int row3, int col3) {
-        int score = 0;
-
-        // First cell
-        if (cells[row1][col1].content == mySeed) {
-            score = 1;
-        } else if (cells[row1][col1].content == oppSeed) {
-            score = -1;
-        }
-
-        // Second cell
-        if (cells[row2][col2].content == mySeed) {
-            score = (score == 1) ? 10 : 1;
-        } else if (cells[row2][col2].content == oppSeed) {
-            score = (score == -1) ? -10 : -1;
-        }
-
-        // Third cell
-        if (cells[row3][col3].content == mySeed) {
-            score = (score > 0) ? score * 10 : 1;
-        } else if (cells[row3][col3].content == oppSeed) {
-            score = (score < 0) ? score * 10 : -1;
-        }
-
-        return score;
-    }
-
-    /** Returns true if the game is close to end and few moves are left */
-    private boolean isCloseToEndGame() {
-        int emptyCells = 0;
-        for (int row = 0; row < ROWS; ++row) {
-            for (int col = 0; col < COLS; ++col) {
-                if (cells[row][col].content == Seed.NO_SEED) {
-                    emptyCells++;
-                }
+    /** Minimax (recursive, negamax form) with alpha-beta pruning, to the end of the
+     * game: depth is the number of empty cells, stored with the table entries.
+     * mine is the bitboard of the player to move, theirs of the other player.
+     * Return the score for the player to move. */
+    private int minimax(int depth, int mine, int theirs, int alpha, int beta) {
+        int empty = FULL & ~(mine | theirs);
+        if (hasWon(theirs)) {
+            return -(WIN + Integer.bitCount(empty)); // The previous move won
+        }
+        if (empty == 0) {
+            return 0; // Draw
+        }
+        // Use what is known of this position, or of any symmetric image of it
+        int canonical = TranspositionTable.canonicalize(mine, theirs);
+        long entry = table.probe(canonical);
+        int firstMove = -1;
+        if (entry != 0) {
+            int score = TranspositionTable.scoreOf(entry);
+            if (TranspositionTable.depthOf(entry) >= depth) {
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.EXACT) return score;
+                if (bound == TranspositionTable.LOWER) alpha = Math.max(alpha, score);
+                if (bound == TranspositionTable.UPPER) beta = Math.min(beta, score);
+                if (alpha >= beta) return score;
+            }
+            int move = TranspositionTable.moveOf(entry);
+            if (move != TranspositionTable.NO_MOVE) {
+                firstMove = TranspositionTable.fromCanonical(canonical, move);
             }
         }
-        return emptyCells <= 3; // Consider the game close to end if <= 3 moves left
-    }
 
-    /** Returns true if the game board is full */
-    private boolean isBoardFull() {
-        for (int row = 0; row < ROWS; ++row) {
-            for (int col = 0; col < COLS; ++col) {
-                if (cells[row][col].content == Seed.NO_SEED) {
-                    return false;
-                }
+        int alphaOrig = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = -1;
+        // Try the best move of a previous search first, then the others in order
+        for (int moves = empty, next = firstMove; moves != 0; next = -1) {
+            int cell = (next >= 0) ? next : Integer.numberOfTrailingZeros(moves);
+            moves &= ~(1 << cell);
+            int score = -minimax(depth - 1, theirs, mine | (1 << cell), -beta, -alpha);
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = cell;
             }
+            alpha = Math.max(alpha, bestScore);
+            if (alpha >= beta) break; // Alpha-beta pruning
         }
-        return true;
+
+        int bound = (bestScore <= alphaOrig) ? TranspositionTable.UPPER
+                : (bestScore >= beta) ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(canonical, depth, bestScore, bound,
+                TranspositionTable.toCanonical(canonical, bestMove));
+        return bestScore;
     }
 
-    /** Returns true if the given player has won */
-    private boolean hasWon(Seed thePlayer) {
-        int pattern = 0b000000000; // 9-bit pattern for the 9 cells
-        for (int row = 0; row < ROWS; ++row) {
-            for (int col = 0; col < COLS; ++col) {
-                if (cells[row][col].content == thePlayer) {
-                    pattern |= (1 << (row * COLS + col));
-                }
-            }
-        }
+    /** Returns true if the player owning the given bitboard has won */
+    private static boolean hasWon(int pattern) {
         for (int winningPattern : winningPatterns) {
             if ((pattern & winningPattern) == winningPattern) return true;
         }
         return false;
     }
-
-    private int[] winningPatterns = {
-            0b111000000, 0b000111000, 0b000000111, // Rows
-            0b100100100, 0b010010010, 0b001001001, // Columns
-            0b100010001, 0b001010100               // Diagonals
-    };
-
-    /** Validate the current board state */
-    private boolean isValidBoardState() {
-        int emptyCells = 0;
-        for (int row = 0; row < ROWS; ++row) {
-            for (int col = 0; col < COLS; ++col) {
-                if (cells[row][col].content == Seed.NO_SEED) {
-                    emptyCells++;
-                }
-            }
-        }
-        return emptyCells > 0; // Ensure at least one cell is empty
-    }
 }
@@ -0,0 +1,39 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+/**
+ * AIPlayer playing perfectly by looking up the solved game in the
+ * PerfectPlayTable: a move is a single array lookup, without any search.
+ */
+public class AIPlayerTable extends AIPlayer {
+    private final PerfectPlayTable table;
+
+    /** Constructor with the given game board */
+    public AIPlayerTable(Board board) {
+        super(board);
+        table = PerfectPlayTable.getInstance();
+    }
+
+    /** Get next best move for computer. Return int[2] of {row, col} */
+    @Override
+    int[] move() {
+        int crosses = bitboard(Seed.CROSS);
+        int noughts = bitboard(Seed.NOUGHT);
+        int cell = table.bestMove(PerfectPlayTable.index(crosses, noughts));
+        if (cell == PerfectPlayTable.NO_MOVE) { // Game already decided: play the first empty cell
+            int empty = ((1 << (ROWS * COLS)) - 1) & ~(crosses | noughts);
+            if (empty == 0) {
+                throw new IllegalStateException("Invalid board state: no empty cells or corrupted game state!");
+            }
+            cell = Integer.numberOfTrailingZeros(empty);
+        }
+        return new int[]{cell / COLS, cell % COLS};
+    }
+}
@@ -0,0 +1,279 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Plays every sound of the game through one SourceDataLine, mixed on one audio
+ * thread, instead of one Clip (and one line) per sound.
+ *
+ * Sounds are decoded once into PCM at the mixer's format and kept in a cache by
+ * name. Playing a sound adds a voice: several voices, of the same sound or not,
+ * play at once, each at its own gain, and are summed and clipped PERIOD_FRAMES at
+ * a time. The line buffers only a few periods, so a sound starts within about
+ * LATENCY_MS of play(). Streams, such as music read from a file as it plays, are
+ * mixed in the same way, a period at a time. When no voice or stream is left the
+ * line is stopped and the thread sleeps until the next play().
+ *
+ * If the system has no audio line, sounds are still decoded but nothing plays.
+ */
+public class AudioMixer {
+    /** Format of the mixed sound: 44.1 kHz, 16-bit, stereo */
+    public static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    public static final int CHANNELS = 2;
+    /** Frames mixed at a time (about 5.8 ms) */
+    public static final int PERIOD_FRAMES = 256;
+    // Periods the line buffers ahead: the bound on the time to start a sound
+    private static final int LINE_PERIODS = 4;
+    public static final int LATENCY_MS = (int) (1000L * PERIOD_FRAMES * LINE_PERIODS / 44100);
+    /** Voices playing at once at most; a new voice takes the place of the oldest */
+    public static final int MAX_VOICES = 16;
+    /** Streams playing at once at most */
+    public static final int MAX_STREAMS = 4;
+
+    private static AudioMixer instance;
+
+    private final Map<String, short[]> cache = new ConcurrentHashMap<>();
+    private final SourceDataLine line;  // null if there is no audio line
+
+    // Voices, in parallel arrays; guarded by this mixer
+    private final short[][] voiceSamples = new short[MAX_VOICES][];
+    private final int[] voicePosition = new int[MAX_VOICES];
+    private final float[] voiceGain = new float[MAX_VOICES];
+    private final long[] voiceStarted = new long[MAX_VOICES];
+    private long triggers;  // play() calls so far, to find the oldest voice
+    private final Stream[] streams = new Stream[MAX_STREAMS];
+
+    /** A sound made while it plays, such as music decoded from a file a bit at a
+     * time. Called on the audio thread, so it must not block */
+    public interface Stream {
+        /** Add the next mix.length samples (interleaved, as FORMAT) into mix. Return
+         * false once the stream has ended, to remove it */
+        boolean mixInto(int[] mix);
+    }
+
+    private AudioMixer() {
+        SourceDataLine opened = null;
+        try {
+            opened = AudioSystem.getSourceDataLine(FORMAT);
+            opened.open(FORMAT, PERIOD_FRAMES * LINE_PERIODS * FORMAT.getFrameSize());
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("No audio output, sounds are off: " + e.getMessage());
+            opened = null;
+        }
+        line = opened;
+        if (line != null) {
+            Thread thread = new Thread(this::run, "Audio mixer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            thread.start();
+        }
+    }
+
+    /** Return the mixer of the game, opening the audio line on the first call */
+    public static synchronized AudioMixer getInstance() {
+        if (instance == null) {
+            instance = new AudioMixer();
+        }
+        return instance;
+    }
+
+    /** Return true if there is an audio line to play on */
+    public boolean isAvailable() {
+        return line != null;
+    }
+
+    /** Return the samples of a sound file (a classpath resource, else a file),
+     * decoded on the first call, or null if it can't be read */
+    public short[] load(String soundFileName) {
+        short[] samples = cache.get(soundFileName);
+        if (samples == null) {
+            try {
+                samples = decode(soundFileName);
+            } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
+                System.err.println("Couldn't load sound " + soundFileName + ": " + e.getMessage());
+                return null;
+            }
+            cache.put(soundFileName, samples);
+        }
+        return samples;
+    }
+
+    /** Start playing the samples from load() at gain (0 to 1), over whatever plays */
+    public void play(short[] samples, float gain) {
+        if (line == null || samples == null || gain <= 0) {
+            return;
+        }
+        synchronized (this) {
+            int slot = 0;
+            for (int i = 0; i < MAX_VOICES; ++i) {
+                if (voiceSamples[i] == null) {
+                    slot = i;
+                    break;
+                }
+                if (voiceStarted[i] < voiceStarted[slot]) slot = i;
+            }
+            voiceSamples[slot] = samples;
+            voicePosition[slot] = 0;
+            voiceGain[slot] = gain;
+            voiceStarted[slot] = ++triggers;
+            notifyAll();
+        }
+    }
+
+    /** Start mixing the stream in, until it ends or is removed */
+    public synchronized void addStream(Stream stream) {
+        if (line == null) {
+            return;
+        }
+        for (int i = 0; i < MAX_STREAMS; ++i) {
+            if (streams[i] == null) {
+                streams[i] = stream;
+                notifyAll();
+                return;
+            }
+        }
+        throw new IllegalStateException("Too many streams playing");
+    }
+
+    /** Stop mixing the stream in */
+    public synchronized void removeStream(Stream stream) {
+        for (int i = 0; i < MAX_STREAMS; ++i) {
+            if (streams[i] == stream) {
+                streams[i] = null;
+            }
+        }
+    }
+
+    /** Stop every voice playing the samples */
+    public synchronized void stop(short[] samples) {
+        for (int i = 0; i < MAX_VOICES; ++i) {
+            if (voiceSamples[i] == samples) {
+                voiceSamples[i] = null;
+            }
+        }
+    }
+
+    // The audio thread: mix a period, write it to the line, and so on; sleep while
+    //  there is nothing to play
+    private void run() {
+        int[] mix = new int[PERIOD_FRAMES * CHANNELS];
+        byte[] out = new byte[mix.length * 2];
+        try {
+            while (true) {
+                boolean playing;
+                synchronized (this) {
+                    playing = mixVoices(mix);
+                }
+                if (!playing) {
+                    line.drain();
+                    line.stop();
+                    synchronized (this) {
+                        while (!hasVoices()) {
+                            wait();
+                        }
+                    }
+                    line.start();
+                    continue;
+                }
+                for (int i = 0; i < mix.length; ++i) {
+                    int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+                    out[2 * i] = (byte) sample;
+                    out[2 * i + 1] = (byte) (sample >> 8);
+                }
+                line.write(out, 0, out.length); // Blocks while the line is full
+            }
+        } catch (InterruptedException e) {
+            line.close();
+        }
+    }
+
+    // Sum a period of every voice and stream into mix, dropping the ones that end.
+    //  Return false if there was none
+    private boolean mixVoices(int[] mix) {
+        Arrays.fill(mix, 0);
+        boolean any = false;
+        for (int v = 0; v < MAX_VOICES; ++v) {
+            short[] samples = voiceSamples[v];
+            if (samples == null) continue;
+            any = true;
+            int position = voicePosition[v];
+            int count = Math.min(mix.length, samples.length - position);
+            float gain = voiceGain[v];
+            for (int i = 0; i < count; ++i) {
+                mix[i] += (int) (samples[position + i] * gain);
+            }
+            voicePosition[v] = position + count;
+            if (voicePosition[v] >= samples.length) {
+                voiceSamples[v] = null;
+            }
+        }
+        for (int s = 0; s < MAX_STREAMS; ++s) {
+            if (streams[s] == null) continue;
+            any = true;
+            if (!streams[s].mixInto(mix)) {
+                streams[s] = null;
+            }
+        }
+        return any;
+    }
+
+    private boolean hasVoices() {
+        for (short[] samples : voiceSamples) {
+            if (samples != null) return true;
+        }
+        for (Stream stream : streams) {
+            if (stream != null) return true;
+        }
+        return false;
+    }
+
+    // Read the whole sound, converted to FORMAT
+    private static short[] decode(String soundFileName) throws IOException, UnsupportedAudioFileException {
+        URL url = AudioMixer.class.getClassLoader().getResource(soundFileName);
+        if (url == null) {
+            File file = new File(soundFileName).getAbsoluteFile();
+            if (!file.isFile()) {
+                throw new IOException("not found");
+            }
+            url = file.toURI().toURL();
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = new BufferedInputStream(url.openStream());
+             AudioInputStream source = AudioSystem.getAudioInputStream(in);
+             AudioInputStream pcm = AudioSystem.getAudioInputStream(FORMAT, source)) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = pcm.read(buffer)) > 0) {
+                bytes.write(buffer, 0, n);
+            }
+        }
+        byte[] data = bytes.toByteArray();
+        short[] samples = new short[data.length / 2];
+        for (int i = 0; i < samples.length; ++i) {
+            samples[i] = (short) ((data[2 * i] & 0xFF) | (data[2 * i + 1] << 8));
+        }
+        return samples;
+    }
+}
@@ -9,40 +9,228 @@
  */
 
 import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * The background music of the game, one player for the whole process (see
+ * getInstance()).
+ *
+ * A track is never loaded whole: a decoder thread reads it a small chunk at a time
+ * into a ring buffer of RING_SECONDS, which the AudioMixer's audio thread plays
+ * from. At the end of the track the decoder opens it again and goes on writing, so
+ * the loop has no gap, and the memory used is the same for any length of track.
+ * Playing another track fades the current one out while the new one fades in.
+ */
 public class BackgroundMusic {
+    /** Time a track takes to fade into the next, in milliseconds */
+    public static final int CROSSFADE_MS = 2000;
+    // Fade out on stop(), short enough to feel immediate but without a click
+    private static final int FADE_OUT_MS = 150;
+    // Music buffered ahead of the mixer, and decoded at a time
+    private static final double RING_SECONDS = 0.5;
+    private static final int CHUNK_BYTES = 8192;
 
-    private static Clip clip;
+    private static BackgroundMusic instance;
 
-    public BackgroundMusic(String resourcePath) {
-        try {
-            // Load the audio file using getResource
-            URL bgm = getClass().getClassLoader().getResource("audio/bgm2.wav");
+    private float volume = 1.0f;
+    private String trackPath;  // track played last, null if none
+    private Track current;     // track playing or fading in, null if stopped
 
-            if (bgm == null) {
-                throw new IOException("Audio file not found: " + resourcePath);
-            }
+    private BackgroundMusic() {
+    }
 
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(bgm);
-            clip = AudioSystem.getClip();
-            clip.open(audioStream);
-        } catch (Exception e) {
-            System.err.println("Error loading audio file: " + e.getMessage());
+    /** Return the music player of the game */
+    public static synchronized BackgroundMusic getInstance() {
+        if (instance == null) {
+            instance = new BackgroundMusic();
         }
+        return instance;
     }
 
-    public void play() {
-        if (clip != null) {
-            clip.loop(Clip.LOOP_CONTINUOUSLY); // Loop the music continuously
-            clip.start();
+    /** Loop the track (a classpath resource), fading from the one playing if it is
+     * another. Nothing changes if the track is already playing */
+    public synchronized void play(String resourcePath) {
+        dropClosedTrack();
+        if (current != null && resourcePath.equals(trackPath)) {
+            return;
         }
+        trackPath = resourcePath;
+        startTrack(CROSSFADE_MS);
     }
 
+    /** Play the last track again, from its start, if it was stopped */
+    public synchronized void play() {
+        dropClosedTrack();
+        if (current == null && trackPath != null) {
+            startTrack(0);
+        }
+    }
+
+    /** Fade the music out and stop it */
     public static void stop() {
-        if (clip != null) {
-            clip.stop();
+        getInstance().fadeOut();
+    }
+
+    /** Set the gain (0 to 1) of the music; the track goes on playing, silent, at 0 */
+    public synchronized void setVolume(float volume) {
+        this.volume = volume;
+        if (current != null) {
+            current.fadeTo(volume, FADE_OUT_MS);
+        }
+    }
+
+    private synchronized void fadeOut() {
+        if (current != null) {
+            current.end(FADE_OUT_MS);
+            current = null;
+        }
+    }
+
+    // Forget the current track if it has ended by itself (its file failed to decode)
+    private void dropClosedTrack() {
+        if (current != null && current.closed) {
+            current = null;
+        }
+    }
+
+    // Start the track at trackPath, fading in over fadeMs if a track is playing,
+    //  while that one fades out
+    private void startTrack(int fadeMs) {
+        AudioMixer mixer = AudioMixer.getInstance();
+        if (!mixer.isAvailable()) {
+            return;
+        }
+        URL url = getClass().getClassLoader().getResource(trackPath);
+        if (url == null) {
+            System.err.println("Error loading audio file: Audio file not found: " + trackPath);
+            return;
+        }
+        int fade = (current != null) ? fadeMs : 0;
+        if (current != null) {
+            current.end(fade);
+        }
+        current = new Track(url, (fade > 0) ? 0 : volume);
+        current.fadeTo(volume, fade);
+        mixer.addStream(current);
+        current.start();
+    }
+
+    /** One track playing: its decoder thread, and the ring buffer it fills */
+    private static final class Track implements AudioMixer.Stream {
+        private final URL url;
+        private final short[] ring;
+        // Samples written and read so far; the ring holds the ones in between
+        private volatile long written;
+        private volatile long read;
+        private volatile boolean closed;   // decoding has stopped
+        private volatile boolean ending;   // fading out for good, by end()
+        private final Thread decoder;
+
+        // Gain, moved by step per sample towards target; set by fadeTo() on any
+        //  thread, read on the audio thread
+        private float gain;
+        private volatile float target;
+        private volatile float step;
+
+        Track(URL url, float gain) {
+            this.url = url;
+            this.gain = gain;
+            target = gain;
+            int frames = (int) (AudioMixer.FORMAT.getSampleRate() * RING_SECONDS);
+            ring = new short[frames * AudioMixer.CHANNELS];
+            decoder = new Thread(this::decode, "Background music");
+            decoder.setDaemon(true);
+        }
+
+        void start() {
+            decoder.start();
+        }
+
+        // Move the gain to target over ms
+        void fadeTo(float target, int ms) {
+            float samples = Math.max(1, AudioMixer.FORMAT.getSampleRate() * AudioMixer.CHANNELS * ms / 1000f);
+            step = Math.max(Math.abs(target - gain) / samples, 1e-6f);
+            this.target = target;
+        }
+
+        // Fade out over ms, then stop decoding and leave the mix
+        void end(int ms) {
+            ending = true;
+            fadeTo(0, ms);
+        }
+
+        // The decoder thread: fill the ring from the track, again and again
+        private void decode() {
+            byte[] chunk = new byte[CHUNK_BYTES];
+            try {
+                while (!closed) {
+                    try (AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(url.openStream()));
+                         AudioInputStream pcm = AudioSystem.getAudioInputStream(AudioMixer.FORMAT, source)) {
+                        int n;
+                        int pending = 0;  // bytes of a sample cut by the chunk
+                        while (!closed && (n = pcm.read(chunk, pending, chunk.length - pending)) > 0) {
+                            n += pending;
+                            int count = n / 2;
+                            write(chunk, count);
+                            pending = n - count * 2;
+                            if (pending > 0) chunk[0] = chunk[n - 1];
+                        }
+                    }
+                }
+            } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
+                System.err.println("Error loading audio file: " + e.getMessage());
+                closed = true;
+            }
+        }
+
+        // Write count samples from the bytes into the ring, waiting while it is full
+        private void write(byte[] bytes, int count) {
+            for (int i = 0; i < count && !closed; ) {
+                long free = ring.length - (written - read);
+                if (free == 0) {
+                    LockSupport.parkNanos(this, 5000000L); // Until the mixer has read some
+                    continue;
+                }
+                int n = (int) Math.min(free, count - i);
+                int at = (int) (written % ring.length);
+                for (int k = 0; k < n; ++k) {
+                    ring[(at + k) % ring.length] = (short) ((bytes[2 * (i + k)] & 0xFF) | (bytes[2 * (i + k) + 1] << 8));
+                }
+                written += n;
+                i += n;
+            }
+        }
+
+        // Mix in what the decoder has written; silence for what it hasn't yet
+        @Override
+        public boolean mixInto(int[] mix) {
+            long available = written - read;
+            if (closed && available < AudioMixer.CHANNELS) {
+                return false; // Failed, or faded out
+            }
+            // Whole frames only, to keep the channels in place
+            int n = (int) Math.min(available, mix.length);
+            n -= n % AudioMixer.CHANNELS;
+            int at = (int) (read % ring.length);
+            float target = this.target, step = this.step;
+            for (int i = 0; i < n; ++i) {
+                if (gain < target) {
+                    gain = Math.min(target, gain + step);
+                } else if (gain > target) {
+                    gain = Math.max(target, gain - step);
+                }
+                mix[i] += (int) (ring[(at + i) % ring.length] * gain);
+            }
+            read += n;
+            LockSupport.unpark(decoder);
+            if (ending && (gain == 0 || n == 0)) {
+                closed = true; // Faded out: stop decoding, and leave the mix
+                return false;
+            }
+            return true;
         }
     }
 }
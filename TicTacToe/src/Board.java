@@ -10,12 +10,20 @@
 
 import java.awt.*;
 /**
- * The Board class models the ROWS-by-COLS game board.
+ * The Board class models the rows-by-cols game board, where winLength in a row
+ * wins: ROWS-by-COLS Tic-Tac-Toe by default. The rules are played by an MNKGame,
+ * which checks a win from the placed cell only.
+ *
+ * Once shown on a canvas (see setCanvas()), the board asks for repaints itself:
+ * a move repaints the cell played, a new game the whole board, and each new frame
+ * of an animated seed image only the cells showing it. Nothing is repainted while
+ * nothing changes. The seed images are pre-scaled frames from the SpriteCache.
  */
 public class Board {
     // Define named constants
-    public static final int ROWS = 3;  // ROWS x COLS cells
+    public static final int ROWS = 3;  // ROWS x COLS cells by default
     public static final int COLS = 3;
+    public static final int WIN_LENGTH = 3;
     // Define named constants for drawing
     public static final int CANVAS_WIDTH = Cell.SIZE * COLS;  // the drawing canvas
     public static final int CANVAS_HEIGHT = Cell.SIZE * ROWS;
@@ -25,24 +33,124 @@ public class Board {
     public static final int Y_OFFSET = 1;  // Fine tune for better display
 
     // Define properties (package-visible)
-    /** Composes of 2D array of ROWS-by-COLS Cell instances */
+    /** Size of the board, and number in a row to win */
+    final int rows, cols, winLength;
+    /** Composes of 2D array of rows-by-cols Cell instances */
     Cell[][] cells;
+    /** The rules and state of the game, kept in step with the cells */
+    MNKGame game;
+    /** The component the board is painted on, null if none */
+    private Component canvas;
+    /** Fires when the next frame of an animated seed image is due */
+    private javax.swing.Timer animator;
 
-    /** Constructor to initialize the game board */
+    /** Constructor to initialize the default game board */
     public Board() {
+        this(ROWS, COLS, WIN_LENGTH);
+    }
+
+    /** Constructor for a rows-by-cols board where winLength in a row wins */
+    public Board(int rows, int cols, int winLength) {
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
         initGame();
     }
 
     /** Initialize the game objects (run once) */
     public void initGame() {
-        cells = new Cell[ROWS][COLS]; // allocate the array
-        for (int row = 0; row < ROWS; ++row) {
-            for (int col = 0; col < COLS; ++col) {
+        cells = new Cell[rows][cols]; // allocate the array
+        for (int row = 0; row < rows; ++row) {
+            for (int col = 0; col < cols; ++col) {
                 // Allocate element of the array
                 cells[row][col] = new Cell(row, col);
                 // Cells are initialized in the constructor
             }
         }
+        game = new MNKGame(rows, cols, winLength);
+    }
+
+    /** Return a copy of the board, that an AI player can search on another thread */
+    public Board copy() {
+        Board copy = new Board(rows, cols, winLength);
+        for (int row = 0; row < rows; ++row) {
+            for (int col = 0; col < cols; ++col) {
+                copy.cells[row][col].content = cells[row][col].content;
+            }
+        }
+        copy.game = new MNKGame(game);
+        return copy;
+    }
+
+    /** Reset the game board, ready for a new game */
+    public void newGame() {
+        for (int row = 0; row < rows; ++row) {
+            for (int col = 0; col < cols; ++col) {
+                cells[row][col].newGame();
+            }
+        }
+        game.clear();
+        if (canvas != null) {
+            canvas.repaint();
+            animate();
+        }
+    }
+
+    /** Set the component the board is painted on, which is repainted where the board
+     * changes */
+    public void setCanvas(Component canvas) {
+        this.canvas = canvas;
+        if (canvas != null) {
+            canvas.repaint();
+        }
+        animate();
+    }
+
+    /** Return the area of the cell on the canvas */
+    public Rectangle cellBounds(int row, int col) {
+        return new Rectangle(col * Cell.SIZE, row * Cell.SIZE, Cell.SIZE, Cell.SIZE);
+    }
+
+    /** Repaint the cell only (thread-safe) */
+    public void repaintCell(int row, int col) {
+        Component target = canvas;
+        if (target != null) {
+            target.repaint(col * Cell.SIZE, row * Cell.SIZE, Cell.SIZE, Cell.SIZE);
+        }
+    }
+
+    // Repaint the cells whose seed image has moved on to another frame, and wait for
+    //  the next frame due. The timer stops when no cell shows an animated image
+    private void animate() {
+        if (canvas == null) {
+            if (animator != null) animator.stop();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int wait = -1;
+        for (int row = 0; row < rows; ++row) {
+            for (int col = 0; col < cols; ++col) {
+                Cell cell = cells[row][col];
+                if (cell.content == Seed.NO_SEED) continue;
+                SpriteCache.Sprite sprite = cell.content.getSprite(Cell.SEED_SIZE, Cell.SEED_SIZE);
+                if (sprite == null || sprite.getFrameCount() == 1) continue;
+                if (sprite.frameAt(now) != cell.frame) {
+                    repaintCell(row, col);
+                }
+                int until = sprite.untilNextFrame(now);
+                if (wait < 0 || until < wait) wait = until;
+            }
+        }
+        if (animator == null) {
+            animator = new javax.swing.Timer(0, e -> animate());
+            animator.setRepeats(false);
+        }
+        if (wait >= 0) {
+            animator.setInitialDelay(wait);
+            animator.restart();
+        } else {
+            animator.stop();
+        }
     }
 
 
@@ -54,58 +162,52 @@ public class Board {
     public State stepGame(Seed player, int selectedRow, int selectedCol) {
         // Update game board
         cells[selectedRow][selectedCol].content = player;
+        if (canvas != null) {
+            repaintCell(selectedRow, selectedCol);
+            animate();
+        }
 
-        // Compute and return the new game state
-        if (cells[selectedRow][0].content == player  // 3-in-the-row
-                && cells[selectedRow][1].content == player
-                && cells[selectedRow][2].content == player
-                || cells[0][selectedCol].content == player // 3-in-the-column
-                && cells[1][selectedCol].content == player
-                && cells[2][selectedCol].content == player
-                || selectedRow == selectedCol     // 3-in-the-diagonal
-                && cells[0][0].content == player
-                && cells[1][1].content == player
-                && cells[2][2].content == player
-                || selectedRow + selectedCol == 2 // 3-in-the-opposite-diagonal
-                && cells[0][2].content == player
-                && cells[1][1].content == player
-                && cells[2][0].content == player) {
+        // Compute and return the new game state: only the lines through the move
+        //  can have been completed
+        int stone = (player == Seed.CROSS) ? MNKGame.FIRST : MNKGame.SECOND;
+        if (game.place(selectedRow * cols + selectedCol, stone)) {
             return (player == Seed.CROSS) ? State.CROSS_WON : State.NOUGHT_WON;
-        } else {
-            // Nobody win. Check for DRAW (all cells occupied) or PLAYING.
-            for (int row = 0; row < ROWS; ++row) {
-                for (int col = 0; col < COLS; ++col) {
-                    if (cells[row][col].content == Seed.NO_SEED) {
-                        return State.PLAYING; // still have empty cells
-                    }
-                }
-            }
+        } else if (game.isFull()) {
             return State.DRAW; // no empty cell, it's a draw
+        } else {
+            return State.PLAYING; // still have empty cells
         }
     }
 
-    /** Paint itself on the graphics canvas, given the Graphics context */
+    /** Paint itself on the graphics canvas, given the Graphics context. Only the
+     * cells inside the clip are painted */
     public void paint(Graphics g) {
+        int width = Cell.SIZE * cols;
+        int height = Cell.SIZE * rows;
         g.setColor(Color.PINK); // Change this to your desired light color
-        g.fillRect(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT); // Fill the entire board area with the background color
+        g.fillRect(0, 0, width, height); // Fill the entire board area with the background color
 
         // Draw the grid-lines
         g.setColor(COLOR_GRID);
-        for (int row = 1; row < ROWS; ++row) {
+        for (int row = 1; row < rows; ++row) {
             g.fillRoundRect(0, Cell.SIZE * row - GRID_WIDTH_HALF,
-                    CANVAS_WIDTH - 1, GRID_WIDTH,
+                    width - 1, GRID_WIDTH,
                     GRID_WIDTH, GRID_WIDTH);
         }
-        for (int col = 1; col < COLS; ++col) {
+        for (int col = 1; col < cols; ++col) {
             g.fillRoundRect(Cell.SIZE * col - GRID_WIDTH_HALF, 0 + Y_OFFSET,
-                    GRID_WIDTH, CANVAS_HEIGHT - 1,
+                    GRID_WIDTH, height - 1,
                     GRID_WIDTH, GRID_WIDTH);
         }
 
-        // Draw all the cells
-        for (int row = 0; row < ROWS; ++row) {
-            for (int col = 0; col < COLS; ++col) {
-                cells[row][col].paint(g);  // ask the cell to paint itself
+        // Draw the cells to repaint, all at the same time of their animation
+        Rectangle clip = g.getClipBounds();
+        long time = System.currentTimeMillis();
+        for (int row = 0; row < rows; ++row) {
+            for (int col = 0; col < cols; ++col) {
+                if (clip == null || clip.intersects(col * Cell.SIZE, row * Cell.SIZE, Cell.SIZE, Cell.SIZE)) {
+                    cells[row][col].paint(g, time);  // ask the cell to paint itself
+                }
             }
         }
     }
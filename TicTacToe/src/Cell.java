@@ -19,12 +19,16 @@ public class Cell {
     public static final int PADDING = SIZE / 5;
     public static final int SEED_SIZE = SIZE - PADDING * 2;
     public static final int SEED_STROKE_WIDTH = 8; // pen's stroke width
+    private static final BasicStroke SEED_STROKE = new BasicStroke(SEED_STROKE_WIDTH,
+            BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
 
     // Define properties (package-visible)
     /** Content of this cell (Seed.EMPTY, Seed.CROSS, or Seed.NOUGHT) */
     Seed content;
     /** Row and column of this cell */
     int row, col;
+    /** Frame of the seed image painted last, -1 if none */
+    int frame = -1;
 
     /** Constructor to initialize this cell with the specified row and col */
     public Cell(int row, int col) {
@@ -36,19 +40,24 @@ public class Cell {
     /** Reset this cell's content to EMPTY, ready for new game */
     public void newGame() {
         content = Seed.NO_SEED;
+        frame = -1;
     }
 
-    /** Paint itself on the graphics canvas, given the Graphics context */
-    public void paint(Graphics g) {
+    /** Paint itself on the graphics canvas, given the Graphics context, with the
+     * frame of the seed image shown at time (ms) */
+    public void paint(Graphics g, long time) {
         // Use Graphics2D which allows us to set the pen's stroke
         Graphics2D g2d = (Graphics2D)g;
-        g2d.setStroke(new BasicStroke(SEED_STROKE_WIDTH,
-                BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-        // Draw the Seed if it is not empty
+        g2d.setStroke(SEED_STROKE);
+        // Draw the Seed if it is not empty: a copy of the pre-scaled frame
         int x1 = col * SIZE + PADDING;
         int y1 = row * SIZE + PADDING;
         if (content == Seed.CROSS || content == Seed.NOUGHT) {
-            g.drawImage(content.getImage(), x1, y1, SEED_SIZE, SEED_SIZE, null);
+            SpriteCache.Sprite sprite = content.getSprite(SEED_SIZE, SEED_SIZE);
+            if (sprite != null) {
+                frame = sprite.frameAt(time);
+                g.drawImage(sprite.getFrame(frame), x1, y1, null);
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.Arrays;
+
+/**
+ * Game state of Connect Four on bitboards: one long per player, with bit
+ * (col * HEIGHT + h) set for the disc at height h (0 at the bottom) of column col.
+ * Each column has one spare bit above its top cell, so that no line of four can
+ * wrap from one column into the next.
+ *
+ * A drop sets the bit of the column's next free cell, kept per column, and four in
+ * a row is found with a few shifts and ANDs: for each direction d (1 vertically,
+ * HEIGHT horizontally, HEIGHT - 1 and HEIGHT + 1 diagonally), b & (b >> d) marks
+ * pairs, and pairs two apart make a four.
+ *
+ * Players are 0 (Red, who starts) and 1 (Yellow).
+ */
+public class ConnectFour {
+    public static final int ROWS = 6;
+    public static final int COLS = 7;
+    public static final int EMPTY = -1;
+
+    /** Bits per column: the rows and a spare bit */
+    static final int HEIGHT = ROWS + 1;
+    // The bottom cell of every column, and every cell of the board
+    static final long BOTTOM;
+    static final long BOARD;
+    static {
+        long bottom = 0;
+        for (int col = 0; col < COLS; ++col) {
+            bottom |= 1L << (col * HEIGHT);
+        }
+        BOTTOM = bottom;
+        BOARD = bottom * ((1L << ROWS) - 1);
+    }
+    private static final int[] DIRECTIONS = {1, HEIGHT, HEIGHT - 1, HEIGHT + 1};
+
+    private final long[] stones = new long[2];
+    // Bit of the next free cell of each column
+    private final int[] next = new int[COLS];
+    private int moveCount;
+
+    /** Constructor for an empty board */
+    public ConnectFour() {
+        clear();
+    }
+
+    /** Copy constructor: the same position, with its own state */
+    public ConnectFour(ConnectFour other) {
+        stones[0] = other.stones[0];
+        stones[1] = other.stones[1];
+        System.arraycopy(other.next, 0, next, 0, COLS);
+        moveCount = other.moveCount;
+    }
+
+    /** Empty the board */
+    public void clear() {
+        Arrays.fill(stones, 0);
+        for (int col = 0; col < COLS; ++col) {
+            next[col] = col * HEIGHT;
+        }
+        moveCount = 0;
+    }
+
+    /** Return true if the column has room for a disc */
+    public boolean canPlay(int col) {
+        return next[col] < col * HEIGHT + ROWS;
+    }
+
+    /** Return the number of discs in the column */
+    public int getHeight(int col) {
+        return next[col] - col * HEIGHT;
+    }
+
+    /** Drop a disc of player into the column. Return true if it wins the game */
+    public boolean play(int col, int player) {
+        stones[player] |= 1L << next[col]++;
+        moveCount++;
+        return hasFour(stones[player]);
+    }
+
+    /** Take back the top disc of the column */
+    public void undo(int col) {
+        long bit = 1L << --next[col];
+        stones[0] &= ~bit;
+        stones[1] &= ~bit;
+        moveCount--;
+    }
+
+    /** Return true if a disc of player dropped into the column would win */
+    public boolean isWinningMove(int col, int player) {
+        return hasFour(stones[player] | (1L << next[col]));
+    }
+
+    /** Return true if no column has room left */
+    public boolean isFull() {
+        return moveCount == ROWS * COLS;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /** Return the player whose disc is in the cell (row 0 at the top), or EMPTY */
+    public int get(int row, int col) {
+        long bit = 1L << (col * HEIGHT + ROWS - 1 - row);
+        return ((stones[0] & bit) != 0) ? 0 : ((stones[1] & bit) != 0) ? 1 : EMPTY;
+    }
+
+    /** Return the discs of the player */
+    public long getStones(int player) {
+        return stones[player];
+    }
+
+    /** Return the occupied cells */
+    public long getMask() {
+        return stones[0] | stones[1];
+    }
+
+    /** Return a key of the position for player to move, unique among positions */
+    public long key(int player) {
+        // The player's discs plus the mask sets one bit above each column's discs
+        return stones[player] + getMask() + BOTTOM;
+    }
+
+    /** Return the bitboard (or key) of the position mirrored left to right. Columns
+     * never carry into each other, so the key of a mirrored position is the mirrored key */
+    static long mirror(long bits) {
+        long column = (1L << HEIGHT) - 1;
+        long mirrored = 0;
+        for (int col = 0; col < COLS; ++col) {
+            mirrored |= ((bits >>> (col * HEIGHT)) & column) << ((COLS - 1 - col) * HEIGHT);
+        }
+        return mirrored;
+    }
+
+    /** Return the empty cells where a disc of player would complete four in a row,
+     * whether they can be played now or not */
+    public long winningCells(int player) {
+        long b = stones[player];
+        long cells = 0;
+        for (int d : DIRECTIONS) {
+            // The empty cell is _ in XXX_, _XXX, X_XX or XX_X along d
+            long before = (b << d) & (b << 2 * d);
+            long after = (b >>> d) & (b >>> 2 * d);
+            cells |= before & (b << 3 * d);
+            cells |= after & (b >>> 3 * d);
+            cells |= (b << d) & after;
+            cells |= before & (b >>> d);
+        }
+        return cells & BOARD & ~getMask();
+    }
+
+    /**
+     * Return the cells of a four in a row of player as {row1, col1, ..., row4, col4}
+     * (row 0 at the top), or null if there is none.
+     */
+    public int[] winningLine(int player) {
+        long b = stones[player];
+        for (int d : DIRECTIONS) {
+            long starts = b & (b >>> d) & (b >>> 2 * d) & (b >>> 3 * d);
+            if (starts != 0) {
+                int bit = Long.numberOfTrailingZeros(starts);
+                int[] cells = new int[8];
+                for (int i = 0; i < 4; ++i) {
+                    int cell = bit + i * d;
+                    cells[2 * i] = ROWS - 1 - cell % HEIGHT;
+                    cells[2 * i + 1] = cell / HEIGHT;
+                }
+                return cells;
+            }
+        }
+        return null;
+    }
+
+    /** Return true if the bitboard has four in a row */
+    static boolean hasFour(long b) {
+        for (int d : DIRECTIONS) {
+            long pairs = b & (b >>> d);
+            if ((pairs & (pairs >>> 2 * d)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Connect Four AI: Minimax in negamax form with alpha-beta pruning on the
+ * ConnectFour bitboards, by iterative deepening under a time limit.
+ *
+ * Columns are tried centre first (the centre takes part in the most lines), after
+ * the best move stored for the position in the ConnectFourTable, which is shared
+ * by all the AIs. A node first looks for a drop that wins at once, so a won
+ * position is scored without search. At the depth limit a position is scored by
+ * the cells where each player would complete four, and by the discs in the centre
+ * column.
+ *
+ * The first plies are played from the ConnectFourBook, when there is one, without
+ * any search.
+ *
+ * With setThreads(), the search runs as Lazy SMP: helper threads search the same
+ * position on their own copies of the game at the same time, half of them one ply
+ * deeper, and share what they find only through the ConnectFourTable. The best
+ * move is the one of the calling thread, which finds more and more of its
+ * positions already searched in the table.
+ */
+public class ConnectFourAI {
+    /** Time to think per move by default, in milliseconds */
+    public static final long DEFAULT_TIME_LIMIT = 1000;
+
+    // Columns in the order they are tried: centre first
+    private static final int[] ORDER = {3, 2, 4, 1, 5, 0, 6};
+    // Score of a win, above any evaluation; a quicker win scores more
+    private static final int WIN = 1000000;
+    private static final int INFINITY = Integer.MAX_VALUE;
+    // Weights of a cell completing four, and of a disc in the centre column
+    private static final int THREAT = 16;
+    private static final int CENTER = 3;
+    private static final long CENTER_COLUMN = ((1L << ConnectFour.ROWS) - 1) << (3 * ConnectFour.HEIGHT);
+    // Nodes searched between two looks at the clock
+    private static final int CHECK_INTERVAL = 4096;
+
+    // Threads of the helper searches, shared by all the AIs
+    private static final ExecutorService HELPERS = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "Connect Four helper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long timeLimit;
+    private final ConnectFourTable table;
+    private final ConnectFourBook book;  // null for none
+    private ConnectFour game;
+    private long deadline;
+    private long nodes;
+    private boolean timeUp;
+    private volatile boolean halted;  // set to stop a helper search
+    private int depthReached;
+    private int threads = 1;
+    private ConnectFourAI[] helpers = new ConnectFourAI[0];
+
+    /** Constructor with the time to think per move (ms), using the shared table and
+     * the default book */
+    public ConnectFourAI(long timeLimit) {
+        this(timeLimit, ConnectFourTable.SHARED, ConnectFourBook.getDefault());
+    }
+
+    /** Constructor with the time to think per move (ms), the transposition table and
+     * the opening book (null for none) */
+    public ConnectFourAI(long timeLimit, ConnectFourTable table, ConnectFourBook book) {
+        this.timeLimit = timeLimit;
+        this.table = table;
+        this.book = book;
+    }
+
+    /** Return the best column for player in the game: from the book if it has the
+     * position, else found within the time limit. The game is searched in place
+     * and left as it was */
+    public int bestMove(ConnectFour game, int player) {
+        if (book != null) {
+            int col = book.lookup(game, player);
+            if (col >= 0 && game.canPlay(col)) {
+                depthReached = 0;
+                nodes = 0;
+                return col;
+            }
+        }
+        return search(game, player);
+    }
+
+    /** Set the number of threads to search with: 1 (the default) searches on the
+     * calling thread only */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.threads = threads;
+        helpers = new ConnectFourAI[threads - 1];
+        for (int i = 0; i < helpers.length; ++i) {
+            helpers[i] = new ConnectFourAI(timeLimit, table, null);
+        }
+    }
+
+    /** Return the best column for player in the game found within the time limit,
+     * without looking at the book */
+    public int search(ConnectFour game, int player) {
+        deadline = System.nanoTime() + timeLimit * 1000000L;
+        halted = false;
+        // Start the helpers on their own copies, half of them one ply ahead
+        List<Future<?>> started = new ArrayList<>();
+        for (int i = 0; i < helpers.length; ++i) {
+            final ConnectFourAI helper = helpers[i];
+            final ConnectFour copy = new ConnectFour(game);
+            final int firstDepth = 1 + (i + 1) % 2;
+            helper.deadline = deadline;
+            helper.halted = false;
+            started.add(HELPERS.submit(() -> helper.iterate(copy, player, firstDepth)));
+        }
+        int move;
+        Throwable failure;
+        try {
+            move = iterate(game, player, 1);
+        } finally {
+            for (ConnectFourAI helper : helpers) {
+                helper.halted = true;
+            }
+            failure = awaitAll(started);
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Helper search failed", failure);
+        }
+        for (ConnectFourAI helper : helpers) {
+            nodes += helper.nodes;
+        }
+        return move;
+    }
+
+    // Wait until every helper has stopped, so that none still searches when the helpers
+    //  are reused. An interrupt doesn't stop the wait (the helpers are halted, so it is
+    //  short); it is set again once they have all stopped. Return what the first
+    //  failed helper threw, or null
+    private static Throwable awaitAll(List<Future<?>> started) {
+        boolean interrupted = false;
+        Throwable failure = null;
+        for (Future<?> future : started) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) failure = e.getCause();
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return failure;
+    }
+
+    // Search by iterative deepening from firstDepth until the deadline or halted.
+    // Return the best column
+    private int iterate(ConnectFour game, int player, int firstDepth) {
+        this.game = game;
+        nodes = 0;
+        timeUp = false;
+        depthReached = 0;
+
+        int bestMove = -1;
+        for (int col : ORDER) {
+            if (game.canPlay(col)) {
+                if (game.isWinningMove(col, player)) {
+                    return col;
+                }
+                if (bestMove < 0) bestMove = col;
+            }
+        }
+        if (bestMove < 0) {
+            throw new IllegalStateException("Invalid board state: no empty cells or corrupted game state!");
+        }
+
+        int maxDepth = ConnectFour.ROWS * ConnectFour.COLS - game.getMoveCount();
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth && !timeUp; ++depth) {
+            int alpha = -INFINITY;
+            int iterationMove = -1;
+            // The best move so far first, then centre first
+            for (int i = -1; i < ORDER.length; ++i) {
+                int col = (i < 0) ? bestMove : ORDER[i];
+                if ((i >= 0 && col == bestMove) || !game.canPlay(col)) continue;
+                game.play(col, player);
+                int score = -negamax(depth - 1, 1 - player, -INFINITY, -alpha);
+                game.undo(col);
+                if (timeUp) break;
+                if (score > alpha) {
+                    alpha = score;
+                    iterationMove = col;
+                }
+            }
+            // A partly searched iteration still counts: the previous best was searched first
+            if (iterationMove >= 0) {
+                bestMove = iterationMove;
+                depthReached = depth;
+            }
+            if (!timeUp && Math.abs(alpha) > WIN - ConnectFour.ROWS * ConnectFour.COLS) {
+                break; // Won or lost by force: searching deeper won't change it
+            }
+        }
+        return bestMove;
+    }
+
+    /** Return the positions searched by the last move over all threads, 0 for a
+     * book move */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** Return the depth of the last search, counting a partly searched iteration */
+    public int getDepthReached() {
+        return depthReached;
+    }
+
+    /** Minimax (recursive, negamax form) at level of depth with alpha-beta pruning.
+     * Return the score for player, who is to move, or 0 once the time is up. */
+    private int negamax(int depth, int player, int alpha, int beta) {
+        if (++nodes % CHECK_INTERVAL == 0 && (System.nanoTime() >= deadline || halted
+                || Thread.currentThread().isInterrupted())) {
+            timeUp = true;
+        }
+        if (timeUp) {
+            return 0;
+        }
+        if (game.isFull()) {
+            return 0; // Draw
+        }
+        // A drop that wins at once needs no search
+        for (int col = 0; col < ConnectFour.COLS; ++col) {
+            if (game.canPlay(col) && game.isWinningMove(col, player)) {
+                return WIN - game.getMoveCount() - 1;
+            }
+        }
+        if (depth == 0) {
+            return evaluate(player);
+        }
+
+        long key = game.key(player);
+        long entry = table.probe(key);
+        int firstMove = ConnectFourTable.NO_MOVE;
+        if (entry != 0) {
+            int score = ConnectFourTable.scoreOf(entry);
+            if (ConnectFourTable.depthOf(entry) >= depth) {
+                int bound = ConnectFourTable.boundOf(entry);
+                if (bound == ConnectFourTable.EXACT) return score;
+                if (bound == ConnectFourTable.LOWER) alpha = Math.max(alpha, score);
+                if (bound == ConnectFourTable.UPPER) beta = Math.min(beta, score);
+                if (alpha >= beta) return score;
+            }
+            firstMove = ConnectFourTable.moveOf(entry);
+        }
+
+        int alphaOrig = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = ConnectFourTable.NO_MOVE;
+        for (int i = -1; i < ORDER.length; ++i) {
+            int col = (i < 0) ? firstMove : ORDER[i];
+            if (col == ConnectFourTable.NO_MOVE || (i >= 0 && col == firstMove) || !game.canPlay(col)) continue;
+            game.play(col, player);
+            int score = -negamax(depth - 1, 1 - player, -beta, -alpha);
+            game.undo(col);
+            if (timeUp) return 0;
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = col;
+            }
+            alpha = Math.max(alpha, bestScore);
+            if (alpha >= beta) break; // Alpha-beta pruning
+        }
+
+        int bound = (bestScore <= alphaOrig) ? ConnectFourTable.UPPER
+                : (bestScore >= beta) ? ConnectFourTable.LOWER : ConnectFourTable.EXACT;
+        table.store(key, depth, bestScore, bound, bestMove);
+        return bestScore;
+    }
+
+    /** The heuristic evaluation function for player, who is to move */
+    private int evaluate(int player) {
+        int opponent = 1 - player;
+        int score = THREAT * (Long.bitCount(game.winningCells(player))
+                - Long.bitCount(game.winningCells(opponent)));
+        score += CENTER * (Long.bitCount(game.getStones(player) & CENTER_COLUMN)
+                - Long.bitCount(game.getStones(opponent) & CENTER_COLUMN));
+        return score;
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Opening book of Connect Four: the best column of the positions of the first
+ * plies, precomputed by ConnectFourBookBuilder. The file is memory-mapped, and a
+ * position is found by binary search, so a book move costs a few reads and the
+ * book is never loaded onto the heap.
+ *
+ * File layout (big-endian):
+ *   header  magic "C4BK", version, plies covered, reserved byte, record count
+ *   records one long per position, sorted: the position key shifted left by 3,
+ *           with the best column in the low 3 bits
+ *
+ * A position and its mirror image share one record, under the smaller of their
+ * two keys; the column is mirrored back when the position was the other one.
+ */
+public class ConnectFourBook implements Closeable {
+    private static final int MAGIC = 0x43344B42; // "C4BK"
+    private static final short VERSION = 1;
+    public static final int HEADER_SIZE = 12;
+
+    private static ConnectFourBook instance;
+    private static boolean instanceLoaded;
+
+    private final FileChannel channel;
+    private final LongBuffer records;
+    private final int plies;
+
+    private ConnectFourBook(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getShort() != VERSION) {
+            throw new IOException("Not a Connect Four book file");
+        }
+        plies = header.get();
+        header.get(); // reserved
+        int count = header.getInt();
+        if (HEADER_SIZE + 8L * count > channel.size()) {
+            throw new IOException("Truncated Connect Four book");
+        }
+        records = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, 8L * count).asLongBuffer();
+    }
+
+    /** Open an existing book file for reading */
+    public static ConnectFourBook open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new ConnectFourBook(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Return the book file looked for by default */
+    public static Path bookFile() {
+        return Paths.get("connect4.book");
+    }
+
+    /** Return the book at bookFile(), mapped on the first call, or null if there is
+     * no valid book there */
+    public static synchronized ConnectFourBook getDefault() {
+        if (!instanceLoaded) {
+            instanceLoaded = true;
+            Path file = bookFile();
+            if (Files.isRegularFile(file)) {
+                try {
+                    instance = open(file);
+                } catch (IOException e) {
+                    System.err.println("Ignoring " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /** Return the number of plies from the start covered by the book */
+    public int getPlies() {
+        return plies;
+    }
+
+    /** Return the number of positions in the book */
+    public int size() {
+        return records.limit();
+    }
+
+    /** Return the book column for player to move in the game, or -1 if the position
+     * is not in the book */
+    public int lookup(ConnectFour game, int player) {
+        if (game.getMoveCount() >= plies) {
+            return -1;
+        }
+        long key = game.key(player);
+        long mirrored = ConnectFour.mirror(key);
+        int col = find(Math.min(key, mirrored));
+        if (col < 0 || mirrored >= key) {
+            return col;
+        }
+        return ConnectFour.COLS - 1 - col;
+    }
+
+    // Binary search of the key among the records. Return its column, or -1
+    private int find(long key) {
+        int low = 0, high = records.limit() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = records.get(mid) >>> 3;
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return (int) (records.get(mid) & 7);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Return the record of a position: its canonical key and its best column, both
+     * taken in the same orientation */
+    public static long record(long key, int col) {
+        long mirrored = ConnectFour.mirror(key);
+        if (mirrored < key) {
+            return (mirrored << 3) | (ConnectFour.COLS - 1 - col);
+        }
+        return (key << 3) | col;
+    }
+
+    /** Write a book file holding the given records, in any order (they are sorted) */
+    public static void write(Path file, int plies, long[] records) throws IOException {
+        long[] sorted = records.clone();
+        Arrays.sort(sorted);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 8 * sorted.length);
+        buffer.putInt(MAGIC).putShort(VERSION).put((byte) plies).put((byte) 0).putInt(sorted.length);
+        for (long record : sorted) {
+            buffer.putLong(record);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
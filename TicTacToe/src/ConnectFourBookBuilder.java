@@ -0,0 +1,213 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Offline job building the ConnectFourBook.
+ *
+ * The book covers the positions the AI can meet in the first plies, playing either
+ * colour: on the AI's turn only its book move is followed, on the opponent's turn
+ * every move is. The positions are expanded one ply at a time, since the next ply
+ * depends on the book moves just found. The positions of a ply are searched in
+ * parallel, each thread with its own ConnectFourAI and a long time limit, all
+ * sharing the ConnectFourTable.
+ *
+ * Every book move is appended to a journal file as soon as it is found. A run that
+ * is stopped can be started again with the same arguments: positions already in
+ * the journal are not searched again; a record cut short by the stop is cut off
+ * the journal before appending. The journal is kept after the book is written, so
+ * a later run can extend the book to more plies.
+ *
+ * Usage: java ConnectFourBookBuilder [plies] [ms per position] [threads] [book file]
+ */
+public class ConnectFourBookBuilder {
+    public static final int DEFAULT_PLIES = 8;
+    public static final long DEFAULT_TIME_LIMIT = 2000;
+
+    private final int plies;
+    private final long timeLimit;
+    private final int threads;
+    private final Path bookFile;
+    private final Path journalFile;
+    // Book records found so far, by canonical key; added to by the search threads
+    private final Map<Long, Long> records = new ConcurrentHashMap<>();
+    private DataOutputStream journal;
+
+    public ConnectFourBookBuilder(int plies, long timeLimit, int threads, Path bookFile) {
+        this.plies = plies;
+        this.timeLimit = timeLimit;
+        this.threads = threads;
+        this.bookFile = bookFile;
+        this.journalFile = Paths.get(bookFile + ".journal");
+    }
+
+    /** A position to expand, and the colours whose book line it is on (bit 0 for
+     * Red, bit 1 for Yellow) */
+    private static final class Node {
+        final ConnectFour game;
+        int lines;
+
+        Node(ConnectFour game, int lines) {
+            this.game = game;
+            this.lines = lines;
+        }
+    }
+
+    /** Build the book: search the positions missing from the journal, then write
+     * the book file */
+    public void run() throws IOException, InterruptedException {
+        loadJournal();
+        journal = new DataOutputStream(new FileOutputStream(journalFile.toFile(), true));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        final ThreadLocal<ConnectFourAI> ais = ThreadLocal.withInitial(
+                () -> new ConnectFourAI(timeLimit, ConnectFourTable.SHARED, null));
+        List<Long> book = new ArrayList<>();
+        try {
+            List<Node> level = new ArrayList<>();
+            level.add(new Node(new ConnectFour(), 3));
+            for (int ply = 0; ply < plies; ++ply) {
+                final int player = ply % 2;
+                // Search the positions of this ply where the book's colour is to move
+                List<Future<?>> searches = new ArrayList<>();
+                int known = 0;
+                for (Node node : level) {
+                    if ((node.lines & (1 << player)) == 0) continue;
+                    final long key = node.game.key(player);
+                    book.add(canonical(key));
+                    if (records.containsKey(canonical(key))) {
+                        known++;
+                        continue;
+                    }
+                    final ConnectFour game = new ConnectFour(node.game);
+                    searches.add(pool.submit(() -> {
+                        int col = ais.get().search(game, player);
+                        addRecord(ConnectFourBook.record(key, col));
+                        return null;
+                    }));
+                }
+                System.out.printf("Ply %d: %d positions, %d from the journal%n",
+                        ply, searches.size() + known, known);
+                for (Future<?> search : searches) {
+                    search.get();
+                }
+                level = expand(level, player);
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Search failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            journal.close();
+        }
+
+        long[] bookRecords = new long[book.size()];
+        for (int i = 0; i < bookRecords.length; ++i) {
+            bookRecords[i] = records.get(book.get(i));
+        }
+        ConnectFourBook.write(bookFile, plies, bookRecords);
+        System.out.printf("Wrote %d positions into %s%n", bookRecords.length, bookFile);
+    }
+
+    // Return the positions of the next ply: on each book line, the book move where the
+    // line's colour was to move and every move elsewhere. Mirror images are merged
+    private List<Node> expand(List<Node> level, int player) {
+        Map<Long, Node> next = new LinkedHashMap<>();
+        for (Node node : level) {
+            long key = node.game.key(player);
+            int bookMove = bookMove(key);
+            for (int col = 0; col < ConnectFour.COLS; ++col) {
+                if (!node.game.canPlay(col)) continue;
+                int lines = (col == bookMove) ? node.lines : node.lines & ~(1 << player);
+                if (lines == 0) continue;
+                ConnectFour child = new ConnectFour(node.game);
+                if (child.play(col, player) || child.isFull()) continue; // Game over
+                long childKey = canonical(child.key(1 - player));
+                Node existing = next.get(childKey);
+                if (existing == null) {
+                    next.put(childKey, new Node(child, lines));
+                } else {
+                    existing.lines |= lines;
+                }
+            }
+        }
+        return new ArrayList<>(next.values());
+    }
+
+    // Return the book column of the position with the given key, or -1
+    private int bookMove(long key) {
+        Long record = records.get(canonical(key));
+        if (record == null) {
+            return -1;
+        }
+        int col = (int) (record & 7);
+        return ((record >>> 3) == key) ? col : ConnectFour.COLS - 1 - col;
+    }
+
+    private static long canonical(long key) {
+        return Math.min(key, ConnectFour.mirror(key));
+    }
+
+    // Record a book move, and append it to the journal at once
+    private synchronized void addRecord(long record) throws IOException {
+        records.put(record >>> 3, record);
+        journal.writeLong(record);
+        journal.flush();
+    }
+
+    // Read the book moves of previous runs, and cut off a record cut short by a
+    //  crash, so that the records appended next are whole longs again
+    private void loadJournal() throws IOException {
+        if (!Files.isRegularFile(journalFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+            while (true) {
+                long record = in.readLong();
+                records.put(record >>> 3, record);
+            }
+        } catch (EOFException e) {
+            // End of the journal
+        }
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            channel.truncate(size - size % Long.BYTES);
+        }
+        System.out.printf("Resuming from %s: %d positions%n", journalFile, records.size());
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int plies = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PLIES;
+        long timeLimit = (args.length > 1) ? Long.parseLong(args[1]) : DEFAULT_TIME_LIMIT;
+        int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Path file = (args.length > 3) ? Paths.get(args[3]) : ConnectFourBook.bookFile();
+        long start = System.nanoTime();
+        new ConnectFourBookBuilder(plies, timeLimit, threads, file).run();
+        System.out.printf("Done in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the Connect Four board of TTTGraphics in layers, each kept in an offscreen
+ * image so that a repaint is a few image copies:
+ *   grid       the background and grid lines, drawn once
+ *   discs      the discs that have landed, one disc drawn in per drop
+ *   highlight  the winning line
+ *   falling    the discs still falling, moved by a 60 fps timer
+ * A disc is drawn once per colour into a sprite, then only copied. Each frame of a
+ * fall repaints the strip of the column the disc moved through, and nothing is
+ * allocated per frame.
+ */
+public class ConnectFourRenderer {
+    public static final int FRAME_RATE = 60;
+
+    private static final int ROWS = ConnectFour.ROWS;
+    private static final int COLS = ConnectFour.COLS;
+    private static final int SIZE = TTTGraphics.CELL_SIZE;
+    private static final int WIDTH = SIZE * COLS;
+    private static final int HEIGHT = SIZE * ROWS;
+    private static final int INSET = SIZE / 8;          // from the cell's corner to the disc's
+    private static final int DISC = SIZE - SIZE / 4;    // disc diameter
+    private static final double GRAVITY = 4000;         // fall acceleration, pixels/s^2
+    private static final int HIGHLIGHT = 2;             // sprite of the winning line
+
+    private final Component canvas;
+    private final int[][] discs = new int[ROWS][COLS];  // player of each landed disc, or EMPTY
+    private int[] highlight;                            // {row, col, ...} of the winning line, or null
+
+    // Layers and sprites, created on the first paint in the canvas' own format
+    private BufferedImage gridLayer;
+    private BufferedImage discLayer;
+    private final BufferedImage[] sprites = new BufferedImage[3];  // Red, Yellow, highlight
+
+    // Falling discs, in parallel arrays; a column holds at most ROWS at once
+    private final int[] fallRow = new int[ROWS * COLS];
+    private final int[] fallCol = new int[ROWS * COLS];
+    private final int[] fallPlayer = new int[ROWS * COLS];
+    private final int[] fallY = new int[ROWS * COLS];
+    private final long[] fallStart = new long[ROWS * COLS];
+    private final Runnable[] fallLanded = new Runnable[ROWS * COLS];
+    private int fallCount;
+    private final javax.swing.Timer animator;
+
+    /** Constructor for the board painted on canvas, which is repainted where the board
+     * changes */
+    public ConnectFourRenderer(Component canvas) {
+        this.canvas = canvas;
+        animator = new javax.swing.Timer(1000 / FRAME_RATE, e -> animate());
+        clearDiscs();
+    }
+
+    /** Remove every disc and the highlight, falling discs included: their landing
+     * actions are not run */
+    public void clear() {
+        for (int i = 0; i < fallCount; ++i) {
+            fallLanded[i] = null;
+        }
+        fallCount = 0;
+        animator.stop();
+        highlight = null;
+        clearDiscs();
+        if (discLayer != null) {
+            Graphics2D g = discLayer.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+            g.dispose();
+        }
+        canvas.repaint();
+    }
+
+    /** Drop a disc of player (0 or 1) from above the board into the cell, then run
+     * landed (may be null) */
+    public void drop(int row, int col, int player, Runnable landed) {
+        int i = fallCount++;
+        fallRow[i] = row;
+        fallCol[i] = col;
+        fallPlayer[i] = player;
+        fallY[i] = INSET - SIZE;
+        fallStart[i] = System.nanoTime();
+        fallLanded[i] = landed;
+        if (!animator.isRunning()) {
+            animator.start();
+        }
+    }
+
+    /** Show the winning line, as {row, col, ...}, or nothing for null */
+    public void setHighlight(int[] cells) {
+        repaintCells(highlight);
+        highlight = cells;
+        repaintCells(highlight);
+    }
+
+    /** Paint the layers, inside the clip */
+    public void paint(Graphics g) {
+        createLayers();
+        g.drawImage(gridLayer, 0, 0, null);
+        g.drawImage(discLayer, 0, 0, null);
+        if (highlight != null) {
+            for (int i = 0; i < highlight.length; i += 2) {
+                g.drawImage(sprites[HIGHLIGHT], highlight[i + 1] * SIZE + INSET, highlight[i] * SIZE + INSET, null);
+            }
+        }
+        for (int i = 0; i < fallCount; ++i) {
+            g.drawImage(sprites[fallPlayer[i]], fallCol[i] * SIZE + INSET, fallY[i], null);
+        }
+    }
+
+    // Move the falling discs on to where they are now, and land the ones that got there
+    private void animate() {
+        long now = System.nanoTime();
+        for (int i = fallCount - 1; i >= 0; --i) {
+            if (i >= fallCount) continue; // A landing action cleared the board
+            double seconds = (now - fallStart[i]) / 1e9;
+            int targetY = fallRow[i] * SIZE + INSET;
+            int y = Math.min(targetY, INSET - SIZE + (int) (GRAVITY * seconds * seconds / 2));
+            int x = fallCol[i] * SIZE + INSET;
+            // The strip the disc was in and is now in
+            canvas.repaint(x, fallY[i], DISC, y - fallY[i] + DISC);
+            fallY[i] = y;
+            if (y == targetY) {
+                land(i);
+            }
+        }
+        if (fallCount == 0) {
+            animator.stop();
+        }
+    }
+
+    // Draw falling disc i into the disc layer, and run its landing action
+    private void land(int i) {
+        int row = fallRow[i], col = fallCol[i];
+        discs[row][col] = fallPlayer[i];
+        if (discLayer != null) {
+            Graphics2D g = discLayer.createGraphics();
+            g.drawImage(sprites[fallPlayer[i]], col * SIZE + INSET, row * SIZE + INSET, null);
+            g.dispose();
+        }
+        canvas.repaint(col * SIZE, row * SIZE, SIZE, SIZE);
+        Runnable landed = fallLanded[i];
+        // Keep the array packed: the last falling disc takes its place
+        int last = --fallCount;
+        fallRow[i] = fallRow[last];
+        fallCol[i] = fallCol[last];
+        fallPlayer[i] = fallPlayer[last];
+        fallY[i] = fallY[last];
+        fallStart[i] = fallStart[last];
+        fallLanded[i] = fallLanded[last];
+        fallLanded[last] = null;
+        if (landed != null) {
+            landed.run();
+        }
+    }
+
+    private void clearDiscs() {
+        for (int row = 0; row < ROWS; ++row) {
+            for (int col = 0; col < COLS; ++col) {
+                discs[row][col] = ConnectFour.EMPTY;
+            }
+        }
+    }
+
+    private void repaintCells(int[] cells) {
+        if (cells == null) return;
+        for (int i = 0; i < cells.length; i += 2) {
+            canvas.repaint(cells[i + 1] * SIZE, cells[i] * SIZE, SIZE, SIZE);
+        }
+    }
+
+    // Create the layers and sprites, unless done already
+    private void createLayers() {
+        if (gridLayer != null) {
+            return;
+        }
+        gridLayer = createImage(WIDTH, HEIGHT, Transparency.OPAQUE);
+        Graphics2D g = gridLayer.createGraphics();
+        g.setColor(TTTGraphics.COLOR_BG);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setColor(TTTGraphics.COLOR_GRID);
+        for (int row = 1; row < ROWS; ++row) {
+            g.fillRoundRect(0, SIZE * row - TTTGraphics.GRID_WIDTH_HALF,
+                    WIDTH - 1, TTTGraphics.GRID_WIDTH, TTTGraphics.GRID_WIDTH, TTTGraphics.GRID_WIDTH);
+        }
+        for (int col = 1; col < COLS; ++col) {
+            g.fillRoundRect(SIZE * col - TTTGraphics.GRID_WIDTH_HALF, 0,
+                    TTTGraphics.GRID_WIDTH, HEIGHT - 1, TTTGraphics.GRID_WIDTH, TTTGraphics.GRID_WIDTH);
+        }
+        g.dispose();
+
+        Color[] colors = {TTTGraphics.COLOR_CROSS, TTTGraphics.COLOR_NOUGHT, Color.GREEN};
+        for (int i = 0; i < sprites.length; ++i) {
+            sprites[i] = createImage(DISC, DISC, Transparency.BITMASK);
+            g = sprites[i].createGraphics();
+            g.setColor(colors[i]);
+            g.fillOval(0, 0, DISC, DISC);
+            g.dispose();
+        }
+
+        // The discs that landed before the first paint
+        discLayer = createImage(WIDTH, HEIGHT, Transparency.BITMASK);
+        g = discLayer.createGraphics();
+        for (int row = 0; row < ROWS; ++row) {
+            for (int col = 0; col < COLS; ++col) {
+                if (discs[row][col] != ConnectFour.EMPTY) {
+                    g.drawImage(sprites[discs[row][col]], col * SIZE + INSET, row * SIZE + INSET, null);
+                }
+            }
+        }
+        g.dispose();
+    }
+
+    // Return an image in the canvas' own format, when it is on screen
+    private BufferedImage createImage(int width, int height, int transparency) {
+        GraphicsConfiguration config = canvas.getGraphicsConfiguration();
+        if (config != null) {
+            return config.createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height,
+                (transparency == Transparency.OPAQUE) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    }
+}
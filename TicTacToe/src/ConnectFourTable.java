@@ -0,0 +1,94 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size transposition table for the Connect Four search, shared without locks
+ * by the searches of every thread.
+ *
+ * A position is stored at the slot given by a hash of its ConnectFour.key(), and
+ * replaces whatever was there. Each slot is two longs: the entry, and the entry
+ * XOR the key. Two threads writing the same slot at once may leave the halves of
+ * different entries; the XOR then no longer gives back the key, so probe() reads a
+ * torn slot as empty instead of returning a wrong entry.
+ *
+ * An entry packs the score, its bound (EXACT, LOWER or UPPER), the best column and
+ * the depth searched to.
+ */
+public class ConnectFourTable {
+    // Bound types of a stored score; 0 marks an empty entry
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;  // the score is at least the stored one
+    public static final int UPPER = 3;  // the score is at most the stored one
+    public static final int NO_MOVE = 7;
+
+    /** Slots of the table by default (16 bytes each) */
+    public static final int DEFAULT_BITS = 20;
+
+    /** The table shared by every Connect Four AI */
+    public static final ConnectFourTable SHARED = new ConnectFourTable(DEFAULT_BITS);
+
+    private final int bits;
+    private final AtomicLongArray slots;
+
+    /** Constructor for a table of 2^bits slots */
+    public ConnectFourTable(int bits) {
+        this.bits = bits;
+        slots = new AtomicLongArray(2 << bits);
+    }
+
+    /** Return the entry of the position, 0 if there is none */
+    public long probe(long key) {
+        int slot = slot(key);
+        long entry = slots.get(slot);
+        long check = slots.get(slot + 1);
+        return ((entry ^ check) == key) ? entry : 0;
+    }
+
+    /** Store the result of a search of the position */
+    public void store(long key, int depth, int score, int bound, int move) {
+        long entry = (score & 0xFFFFFFFFL) | ((long) bound << 32) | ((long) move << 34)
+                | ((long) depth << 40);
+        int slot = slot(key);
+        slots.set(slot, entry);
+        slots.set(slot + 1, entry ^ key);
+    }
+
+    /** Remove every entry */
+    public void clear() {
+        for (int i = 0; i < slots.length(); ++i) {
+            slots.set(i, 0);
+        }
+    }
+
+    // Index of the first long of the slot of the key
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> (64 - bits)) << 1;
+    }
+
+    // Fields of an entry
+    public static int scoreOf(long entry) {
+        return (int) entry;
+    }
+
+    public static int boundOf(long entry) {
+        return (int) (entry >>> 32) & 3;
+    }
+
+    public static int moveOf(long entry) {
+        return (int) (entry >>> 34) & 7;
+    }
+
+    public static int depthOf(long entry) {
+        return (int) (entry >>> 40) & 63;
+    }
+}
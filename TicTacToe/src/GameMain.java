@@ -12,6 +12,10 @@ import java.awt.*;
 import java.awt.event.*;
 import javax.swing.*;
 import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 public class GameMain extends JPanel {
     private static final long serialVersionUID = 1L;
@@ -19,7 +23,23 @@ public class GameMain extends JPanel {
     public static final Color COLOR_BG_LIGHT = Color.WHITE;
     public static final Color COLOR_BG_STATUS_LIGHT = new Color(216, 216, 216);
     public static final Font FONT_STATUS = new Font("OCR A Extended", Font.PLAIN, 14);
+    public static final String MUSIC = "audio/bgm2.wav"; // path to your audio file
+    // Boards of the Board Size menu: {rows, cols, number in a row to win}
+    private static final int[][] BOARD_SIZES = {{3, 3, 3}, {5, 5, 4}, {7, 7, 5}};
+    // Thread the AI moves are computed on, off the event dispatch thread
+    private static final ExecutorService AI_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "AI player");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
     private Board board;
+    private JPanel gameBoardPanel;  // The board is painted on it, cell by cell as it changes
+    private AIPlayer aiPlayer;   // Plays NOUGHT when AI mode is on, only on the AI thread
+    private Future<?> aiSearch;  // AI move being computed, null if none
+    private int aiGeneration;    // Bumped on every AI move and cancel: stale results are dropped
     private State currentState;
     private Seed currentPlayer;
     private JLabel statusBar;
@@ -32,6 +52,8 @@ public class GameMain extends JPanel {
     private BackgroundMusic backgroundMusic;
     private boolean gameOverPopupShown = false;
     private boolean aiEnabled = false; // Toggle AI mode
+    private int[] boardSize = BOARD_SIZES[0];  // {rows, cols, winLength} of the next board
+    private boolean monteCarlo = false;  // AI searches larger boards with MCTS rather than alpha-beta
     private String crossPlayerName = null; // Store the name for Cross
     private String noughtPlayerName = null; // Store the name for Nought
     private ImageIcon backgroundImage;
@@ -43,9 +65,9 @@ public class GameMain extends JPanel {
         setLayout(new BorderLayout());
         setBackground(COLOR_BG_LIGHT);
         // Initialize background music
-        backgroundMusic = new BackgroundMusic("audio/bgm2.wav"); // path to your audio file
+        backgroundMusic = BackgroundMusic.getInstance(); // One player, shared by every game
         // Game board panel
-        JPanel gameBoardPanel = new JPanel() {
+        gameBoardPanel = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
@@ -62,19 +84,19 @@ public class GameMain extends JPanel {
             public void mouseClicked(MouseEvent e) {
                 int row = e.getY() / Cell.SIZE;
                 int col = e.getX() / Cell.SIZE;
-                if (currentState == State.PLAYING) {
-                    if (row >= 0 && row < Board.ROWS && col >= 0 && col < Board.COLS
+                if (currentState == State.PLAYING && aiSearch == null) {
+                    if (row >= 0 && row < board.rows && col >= 0 && col < board.cols
                             && board.cells[row][col].content == Seed.NO_SEED) {
                         currentState = board.stepGame(currentPlayer, row, col);
                         currentPlayer = (currentPlayer == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
                         // If playing against AI, AI will play after human's turn
                         if (aiEnabled && currentState == State.PLAYING) {
-                            makeAIMove();
+                            startAIMove();
                         }
                         if (currentState == State.PLAYING) SoundEffect.WUP.play();
+                        updateStatus();
                     }
                 }
-                repaint();
             }
         });
         // Status bar and button panel
@@ -93,7 +115,6 @@ public class GameMain extends JPanel {
         restartButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 newGame();
-                repaint();
             }
         });
         // Create a panel to hold the status bar and restart button
@@ -109,6 +130,7 @@ public class GameMain extends JPanel {
         backToHomePage = new JMenuItem("Back to Home Page");
         backToHomePage.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
+                cancelAIMove();
                 BackgroundMusic.stop();
                 // Dispose of the parent frame before navigating
                 Window parentWindow = SwingUtilities.getWindowAncestor(statusBar);
@@ -137,7 +159,41 @@ public class GameMain extends JPanel {
                 System.exit(0);
             }
         });
+        // Board Size sub-menu: the board and the number in a row to win
+        JMenu sizeMenu = new JMenu("Board Size");
+        ButtonGroup sizeGroup = new ButtonGroup();
+        for (final int[] size : BOARD_SIZES) {
+            JRadioButtonMenuItem sizeItem = new JRadioButtonMenuItem(
+                    size[0] + "x" + size[1] + ", " + size[2] + " in a row", size == boardSize);
+            sizeItem.addActionListener(new ActionListener() {
+                public void actionPerformed(ActionEvent e) {
+                    boardSize = size;
+                    changeBoard();
+                }
+            });
+            sizeGroup.add(sizeItem);
+            sizeMenu.add(sizeItem);
+        }
+        // AI Search sub-menu: how the AI searches the boards larger than 3x3 (the 3x3
+        //  game is solved, the AI looks its moves up)
+        JMenu searchMenu = new JMenu("AI Search");
+        ButtonGroup searchGroup = new ButtonGroup();
+        String[] searchNames = {"Alpha-Beta", "Monte Carlo"};
+        for (int i = 0; i < searchNames.length; ++i) {
+            final boolean mcts = (i == 1);
+            JRadioButtonMenuItem searchItem = new JRadioButtonMenuItem(searchNames[i], mcts == monteCarlo);
+            searchItem.addActionListener(new ActionListener() {
+                public void actionPerformed(ActionEvent e) {
+                    monteCarlo = mcts;
+                    changeBoard();
+                }
+            });
+            searchGroup.add(searchItem);
+            searchMenu.add(searchItem);
+        }
         menu.add(aiToggleItem); // Add AI toggle to the menu
+        menu.add(sizeMenu);
+        menu.add(searchMenu);
         menu.add(backToHomePage);
         menu.add(exitItem);
         menuBar.add(menu);
@@ -154,21 +210,30 @@ public class GameMain extends JPanel {
         frame.setVisible(true);
         initGame();
         newGame();
-        javax.swing.Timer timer = new javax.swing.Timer(50, new java.awt.event.ActionListener() {
-            @Override
-            public void actionPerformed(java.awt.event.ActionEvent e) {
-                repaint();
-            }
-        });
-        timer.start();
     }
     // Initialize the game
     public void initGame() {
-        board = new Board();
+        board = new Board(boardSize[0], boardSize[1], boardSize[2]);
+        board.setCanvas(gameBoardPanel); // The board repaints what changes on it
+        aiPlayer = createAIPlayer(board, Seed.NOUGHT, monteCarlo);
+        gameBoardPanel.setPreferredSize(new Dimension(Cell.SIZE * board.cols, Cell.SIZE * board.rows));
+    }
+    // Replace the board and the AI player after a change in the menu, and start over
+    private void changeBoard() {
+        cancelAIMove();
+        board.setCanvas(null); // Stops its animation
+        initGame();
+        Window frame = SwingUtilities.getWindowAncestor(this);
+        if (frame != null) {
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+        }
+        newGame();
     }
     // Start a new game
     public void newGame() {
-        backgroundMusic.play();
+        cancelAIMove();
+        backgroundMusic.play(MUSIC); // Goes on if already playing
         if (!aiEnabled) {
             // Ask for player names if AI is not enabled
             if (crossPlayerName == null || noughtPlayerName == null) {
@@ -208,15 +273,11 @@ public class GameMain extends JPanel {
             Seed.NOUGHT.setImageFileName(aiCharacter);
         }
         // Reset the game board
-        for (int row = 0; row < Board.ROWS; ++row) {
-            for (int col = 0; col < Board.COLS; ++col) {
-                board.cells[row][col].content = Seed.NO_SEED;
-            }
-        }
+        board.newGame();
         // Set the initial player and game state
         currentPlayer = Seed.CROSS; // Player 1 (Cross) starts the game
         currentState = State.PLAYING;
-        statusBar.setText(currentPlayer.getDisplayName() + "'s Turn");
+        updateStatus();
     }
     private String chooseCharacter(String message) {
         // Character options (names)
@@ -242,30 +303,84 @@ public class GameMain extends JPanel {
         // Return the corresponding image file path based on the selected character
         return imagePaths[choice];
     }
+    // Create the AI player for the given board
+    private static AIPlayer createAIPlayer(Board board, Seed seed, boolean monteCarlo) {
+        AIPlayer aiPlayer;
+        // The solved 3x3 game is loaded once, each AI move is then a table lookup;
+        //  other boards are searched
+        if (board.rows == 3 && board.cols == 3 && board.winLength == 3) {
+            aiPlayer = new AIPlayerTable(board);
+        } else if (monteCarlo) {
+            aiPlayer = new AIPlayerMCTS(board); // Uses every processor
+        } else {
+            aiPlayer = new AIPlayerMNK(board);
+            aiPlayer.setThreads(Runtime.getRuntime().availableProcessors());
+        }
+        aiPlayer.setSeed(seed);
+        return aiPlayer;
+    }
+    // Compute the AI's move on the AI thread, against a copy of the board, and
+    //  play it on the event dispatch thread once found
+    private void startAIMove() {
+        final int generation = ++aiGeneration;
+        final Board snapshot = board.copy();
+        aiSearch = AI_EXECUTOR.submit(new Runnable() {
+            @Override
+            public void run() {
+                int[] move = null;
+                try {
+                    // The same player searches every move, so it can keep what it
+                    //  learnt (e.g. the MCTS tree) from one move to the next
+                    aiPlayer.setBoard(snapshot);
+                    move = aiPlayer.move();
+                } catch (RuntimeException e) {
+                    e.printStackTrace(); // Give the turn back rather than hang the game
+                }
+                final int[] aiMove = move;
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation == aiGeneration) { // Not cancelled meanwhile
+                            aiSearch = null;
+                            if (aiMove != null) makeAIMove(aiMove);
+                        }
+                    }
+                });
+            }
+        });
+    }
+    // Stop the AI move being computed, if any: its result will be ignored
+    private void cancelAIMove() {
+        if (aiSearch != null) {
+            aiSearch.cancel(true);
+            aiSearch = null;
+        }
+        aiGeneration++;
+    }
     // Method to handle AI's move
-    private void makeAIMove() {
+    private void makeAIMove(int[] aiMove) {
         if (currentState != State.PLAYING) return;
-        // Use Minimax for AI move
-        AIPlayerMinimax aiPlayer = new AIPlayerMinimax(board); // AI plays as NOUGHT (O)
-        int[] aiMove = aiPlayer.move();
         int row = aiMove[0];
         int col = aiMove[1];
         currentState = board.stepGame(currentPlayer, row, col);
         currentPlayer = (currentPlayer == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
-        if (currentState == State.PLAYING) {
-            statusBar.setText(currentPlayer.getDisplayName() + "'s Turn");
-        }
-        repaint();
+        updateStatus();
     }
-    @Override
-    public void paintComponent(Graphics g) {
-        super.paintComponent(g);  // Always call super for proper painting
-        board.paint(g);
+    // Show whose turn it is after a move, or the game over popup once the game is over.
+    //  Called when the game changes only: the board repaints its own cells
+    private void updateStatus() {
         if (currentState == State.PLAYING) {
             statusBar.setForeground(Color.BLACK);
             statusBar.setText(currentPlayer.getDisplayName() + "'s Turn");
         } else if (currentState != null && !gameOverPopupShown) {  // Check if the game is over
-            showGameOverPopup();  // Show the game over popup only if the game is actually over
+            gameOverPopupShown = true;
+            // Once the last move has been painted
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    showGameOverPopup();
+                }
+            });
         }
     }
     public void showGameOverPopup() {
@@ -294,6 +409,7 @@ public class GameMain extends JPanel {
         playAgainButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                cancelAIMove();
                 // Dispose of the parent frame before navigating
                 Window parentWindow = SwingUtilities.getWindowAncestor(statusBar);
                 if (parentWindow instanceof JFrame) {
@@ -0,0 +1,266 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.Arrays;
+
+/**
+ * Game state of an m,n,k-game: two players take turns to place a stone on an
+ * m-by-n board, and the first to get k stones in a row (horizontally, vertically
+ * or diagonally) wins. Tic-Tac-Toe is the 3,3,3-game and Gomoku the 15,15,5-game.
+ *
+ * Cells are numbered row * cols + col. Each cell holds EMPTY, FIRST or SECOND.
+ * A win is checked from the placed stone only, along its four directions.
+ *
+ * The evaluation follows the windows of the board: every run of k cells in a line.
+ * Each window keeps how many stones of each player it holds, and each cell knows
+ * the windows it belongs to, so a move only updates the windows through its cell.
+ * A window held by a single player with n stones is worth 10^(n-1) to that
+ * player; a window with k - 1 stones and no opponent stone is a threat (one move
+ * from winning). Both totals are kept up to date on place() and undo().
+ */
+public class MNKGame {
+    public static final int EMPTY = 0;
+    public static final int FIRST = 1;
+    public static final int SECOND = 2;
+
+    // Boards with up to this many cells consider every empty cell as a move
+    private static final int SMALL_BOARD = 25;
+
+    // Directions of the lines: right, down, down-right, down-left
+    private static final int[] DIR_ROW = {0, 1, 1, 1};
+    private static final int[] DIR_COL = {1, 0, 1, -1};
+
+    /** Size of the board and number of stones in a row to win */
+    final int rows, cols, winLength;
+    final int cellCount;
+
+    // Stone in each cell
+    private final int[] stones;
+    private int moveCount;
+    // Windows through each cell, and the stones of each player in each window
+    private final int[][] cellWindows;
+    private final int[][] windowStones;
+    // Value of a window held by a single player, by its number of stones
+    private final int[] weights;
+    // Sum of the values of the windows of each player, and count of their threats
+    private final int[] score = new int[3];
+    private final int[] threats = new int[3];
+    // Stones in the 8 neighbours of each cell, to generate the moves near the play
+    private final int[] neighbours;
+
+    /** Constructor for an empty rows-by-cols board where winLength in a row wins */
+    public MNKGame(int rows, int cols, int winLength) {
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.cellCount = rows * cols;
+        stones = new int[cellCount];
+        neighbours = new int[cellCount];
+        weights = new int[winLength + 1];
+        for (int n = 1; n <= winLength; ++n) {
+            weights[n] = (n == 1) ? 1 : weights[n - 1] * 10;
+        }
+
+        // Enumerate the windows, and count the windows through each cell
+        int[] windowCount = new int[cellCount];
+        int windows = 0;
+        int[][] starts = new int[4 * cellCount][];
+        for (int cell = 0; cell < cellCount; ++cell) {
+            for (int dir = 0; dir < 4; ++dir) {
+                int endRow = cell / cols + DIR_ROW[dir] * (winLength - 1);
+                int endCol = cell % cols + DIR_COL[dir] * (winLength - 1);
+                if (endRow >= 0 && endRow < rows && endCol >= 0 && endCol < cols) {
+                    starts[windows++] = new int[]{cell, dir};
+                    for (int i = 0; i < winLength; ++i) {
+                        windowCount[cell + i * (DIR_ROW[dir] * cols + DIR_COL[dir])]++;
+                    }
+                }
+            }
+        }
+        windowStones = new int[3][windows];
+        cellWindows = new int[cellCount][];
+        for (int cell = 0; cell < cellCount; ++cell) {
+            cellWindows[cell] = new int[windowCount[cell]];
+            windowCount[cell] = 0;
+        }
+        for (int w = 0; w < windows; ++w) {
+            int step = DIR_ROW[starts[w][1]] * cols + DIR_COL[starts[w][1]];
+            for (int i = 0; i < winLength; ++i) {
+                int cell = starts[w][0] + i * step;
+                cellWindows[cell][windowCount[cell]++] = w;
+            }
+        }
+    }
+
+    /** Copy constructor: the same position, with its own state */
+    public MNKGame(MNKGame other) {
+        rows = other.rows;
+        cols = other.cols;
+        winLength = other.winLength;
+        cellCount = other.cellCount;
+        weights = other.weights;
+        cellWindows = other.cellWindows;  // Never modified, so shared
+        stones = other.stones.clone();
+        neighbours = other.neighbours.clone();
+        windowStones = new int[3][];
+        for (int p = 0; p < 3; ++p) {
+            windowStones[p] = other.windowStones[p].clone();
+        }
+        System.arraycopy(other.score, 0, score, 0, 3);
+        System.arraycopy(other.threats, 0, threats, 0, 3);
+        moveCount = other.moveCount;
+    }
+
+    /** Empty the board */
+    public void clear() {
+        Arrays.fill(stones, EMPTY);
+        Arrays.fill(neighbours, 0);
+        for (int[] counts : windowStones) {
+            Arrays.fill(counts, 0);
+        }
+        Arrays.fill(score, 0);
+        Arrays.fill(threats, 0);
+        moveCount = 0;
+    }
+
+    /** Place a stone of player on the empty cell. Return true if it wins the game */
+    public boolean place(int cell, int player) {
+        stones[cell] = player;
+        moveCount++;
+        for (int w : cellWindows[cell]) {
+            account(w, -1);
+            windowStones[player][w]++;
+            account(w, +1);
+        }
+        addNeighbours(cell, +1);
+        return isWinningMove(cell);
+    }
+
+    /** Remove the stone of the given cell */
+    public void undo(int cell) {
+        int player = stones[cell];
+        for (int w : cellWindows[cell]) {
+            account(w, -1);
+            windowStones[player][w]--;
+            account(w, +1);
+        }
+        addNeighbours(cell, -1);
+        stones[cell] = EMPTY;
+        moveCount--;
+    }
+
+    // Add (sign = +1) or remove (sign = -1) the value and threat of window w
+    private void account(int w, int sign) {
+        int first = windowStones[FIRST][w];
+        int second = windowStones[SECOND][w];
+        if (second == 0 && first > 0) {
+            score[FIRST] += sign * weights[first];
+            if (first == winLength - 1) threats[FIRST] += sign;
+        } else if (first == 0 && second > 0) {
+            score[SECOND] += sign * weights[second];
+            if (second == winLength - 1) threats[SECOND] += sign;
+        }
+    }
+
+    private void addNeighbours(int cell, int delta) {
+        int row = cell / cols, col = cell % cols;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); ++r) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); ++c) {
+                neighbours[r * cols + c] += delta;
+            }
+        }
+    }
+
+    /** Return true if the stone on the cell completes winLength in a row */
+    public boolean isWinningMove(int cell) {
+        int player = stones[cell];
+        int row = cell / cols, col = cell % cols;
+        for (int dir = 0; dir < 4; ++dir) {
+            int count = 1;
+            // Count the stones of player on both sides of the cell
+            for (int side = -1; side <= 1; side += 2) {
+                int r = row + side * DIR_ROW[dir];
+                int c = col + side * DIR_COL[dir];
+                while (r >= 0 && r < rows && c >= 0 && c < cols && stones[r * cols + c] == player) {
+                    count++;
+                    r += side * DIR_ROW[dir];
+                    c += side * DIR_COL[dir];
+                }
+            }
+            if (count >= winLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Return the stone in the cell */
+    public int get(int cell) {
+        return stones[cell];
+    }
+
+    /** Return true if no empty cell is left */
+    public boolean isFull() {
+        return moveCount == cellCount;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /** Return the player to move: FIRST on an even move count */
+    public int toMove() {
+        return (moveCount % 2 == 0) ? FIRST : SECOND;
+    }
+
+    /** Return the other player */
+    public static int opponent(int player) {
+        return FIRST + SECOND - player;
+    }
+
+    /** Return the value of the position for player: its windows minus the opponent's */
+    public int evaluate(int player) {
+        return score[player] - score[opponent(player)];
+    }
+
+    /** Return the number of windows that player can win with one more stone */
+    public int threats(int player) {
+        return threats[player];
+    }
+
+    /**
+     * Write into moves the empty cells worth trying, and return how many there are.
+     * On large boards these are the cells next to a stone (or the centre on an empty
+     * board); on boards of up to SMALL_BOARD cells, or when no empty cell is next
+     * to a stone, all the empty cells.
+     */
+    public int generateMoves(int[] moves) {
+        if (moveCount == 0 && cellCount > SMALL_BOARD) {
+            moves[0] = (rows / 2) * cols + cols / 2;
+            return 1;
+        }
+        int count = 0;
+        if (cellCount > SMALL_BOARD) {
+            for (int cell = 0; cell < cellCount; ++cell) {
+                if (stones[cell] == EMPTY && neighbours[cell] > 0) {
+                    moves[count++] = cell;
+                }
+            }
+        }
+        if (count == 0) { // Small board, or no empty cell left near the stones
+            for (int cell = 0; cell < cellCount; ++cell) {
+                if (stones[cell] == EMPTY) {
+                    moves[count++] = cell;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The solved 3x3 game: the best move and the outcome of every position, one byte
+ * per position.
+ *
+ * A position is indexed in base 3, cell (row * COLS + col) being the digit of
+ * weight 3^cell: 0 if empty, 1 for a cross, 2 for a nought. The player to move
+ * follows from the counts, as Cross always starts. Each byte holds the best cell
+ * in its low 4 bits (NO_MOVE when the game is over or the position unreachable)
+ * and the outcome for the player to move above them.
+ *
+ * The table is built once by solving the whole game tree with AIPlayerMinimax.
+ * It ships as the resource RESOURCE, written by main(); if the resource is missing
+ * the table is solved at first use instead, which takes about 150 ms.
+ */
+public class PerfectPlayTable {
+    public static final int POSITIONS = 19683;  // 3^9
+    public static final int NO_MOVE = 15;
+    // Outcomes for the player to move; 0 for a finished or unreachable position
+    public static final int WIN = 1;
+    public static final int DRAW = 2;
+    public static final int LOSS = 3;
+
+    /** Class path of the table file */
+    public static final String RESOURCE = "data/tictactoe.bin";
+
+    private static final int CELLS = Board.ROWS * Board.COLS;
+    // 3^cell for each cell
+    private static final int[] POWERS = new int[CELLS];
+    static {
+        POWERS[0] = 1;
+        for (int cell = 1; cell < CELLS; ++cell) {
+            POWERS[cell] = POWERS[cell - 1] * 3;
+        }
+    }
+
+    private static PerfectPlayTable instance;
+
+    private final byte[] entries;
+
+    private PerfectPlayTable(byte[] entries) {
+        this.entries = entries;
+    }
+
+    /** Return the table, loading it (or solving it) on the first call */
+    public static synchronized PerfectPlayTable getInstance() {
+        if (instance == null) {
+            instance = load();
+            if (instance == null) {
+                instance = generate();
+            }
+        }
+        return instance;
+    }
+
+    /** Return the index of the position given by the bitboards of each player */
+    public static int index(int crosses, int noughts) {
+        int index = 0;
+        for (int cell = 0; cell < CELLS; ++cell) {
+            if ((crosses & (1 << cell)) != 0) {
+                index += POWERS[cell];
+            } else if ((noughts & (1 << cell)) != 0) {
+                index += 2 * POWERS[cell];
+            }
+        }
+        return index;
+    }
+
+    /** Return the best cell to play in the position, or NO_MOVE */
+    public int bestMove(int index) {
+        return entries[index] & 0x0F;
+    }
+
+    /** Return the outcome of the position for the player to move: WIN, DRAW, LOSS or 0 */
+    public int outcome(int index) {
+        return (entries[index] >> 4) & 0x03;
+    }
+
+    // Read the table from the class path. Return null if it is missing or damaged
+    private static PerfectPlayTable load() {
+        try (InputStream in = PerfectPlayTable.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                return null;
+            }
+            byte[] entries = in.readAllBytes();
+            if (entries.length != POSITIONS) {
+                System.err.println("Ignoring " + RESOURCE + ": wrong size");
+                return null;
+            }
+            return new PerfectPlayTable(entries);
+        } catch (IOException e) {
+            System.err.println("Couldn't read " + RESOURCE + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Solve every reachable position of the game */
+    public static PerfectPlayTable generate() {
+        byte[] entries = new byte[POSITIONS];
+        Arrays.fill(entries, (byte) NO_MOVE);
+        AIPlayerMinimax solver = new AIPlayerMinimax(new Board(), new TranspositionTable());
+        solve(solver, entries, 0, 0, new boolean[POSITIONS]);
+        return new PerfectPlayTable(entries);
+    }
+
+    // Fill the entries of the position and of every position reachable from it
+    private static void solve(AIPlayerMinimax solver, byte[] entries, int crosses, int noughts,
+                              boolean[] visited) {
+        int index = index(crosses, noughts);
+        if (visited[index]) {
+            return;
+        }
+        visited[index] = true;
+        boolean crossToMove = Integer.bitCount(crosses) == Integer.bitCount(noughts);
+        int mine = crossToMove ? crosses : noughts;
+        int theirs = crossToMove ? noughts : crosses;
+        int move = solver.bestMove(mine, theirs);
+        if (move < 0) {
+            return; // Game over
+        }
+        int score = solver.solve(mine, theirs);
+        int outcome = (score > 0) ? WIN : (score < 0) ? LOSS : DRAW;
+        entries[index] = (byte) (move | (outcome << 4));
+
+        int empty = ((1 << CELLS) - 1) & ~(crosses | noughts);
+        for (int moves = empty; moves != 0; moves &= moves - 1) {
+            int bit = moves & -moves;
+            if (crossToMove) {
+                solve(solver, entries, crosses | bit, noughts, visited);
+            } else {
+                solve(solver, entries, crosses, noughts | bit, visited);
+            }
+        }
+    }
+
+    /** Solve the game and write the table file, by default into src/data */
+    public static void main(String[] args) throws IOException {
+        String file = (args.length > 0) ? args[0] : "src/" + RESOURCE;
+        long start = System.nanoTime();
+        PerfectPlayTable table = generate();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(table.entries);
+        }
+        System.out.printf("Solved %d positions in %.1f ms into %s%n",
+                POSITIONS, (System.nanoTime() - start) / 1e6, file);
+    }
+}
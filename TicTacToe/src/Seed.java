@@ -9,8 +9,6 @@
  */
 
 import java.awt.Image;
-import java.net.URL;
-import javax.swing.ImageIcon;
 
 /**
  * This enum is used by:
@@ -18,8 +16,10 @@ import javax.swing.ImageIcon;
  * 2. Cell content: takes value of CROSS, NOUGHT, or NO_SEED.
  *
  * We also attach a display image icon (text or image) for the items.
- * To draw the image:
- *   g.drawImage(content.getImage(), x, y, width, height, null);
+ * To draw the image at a given size, draw a frame of its sprite:
+ *   SpriteCache.Sprite sprite = content.getSprite(width, height);
+ *   g.drawImage(sprite.getFrame(sprite.frameAt(time)), x, y, null);
+ * The images are decoded and scaled once, by the SpriteCache.
  *
  * Ideally, we should define two enums with inheritance, which is,
  * however, not supported.
@@ -32,28 +32,11 @@ public enum Seed {
     // Private variables
     private String displayName;
     private String imageFileName;
-    private Image img = null;
 
     // Constructor (must be private)
     private Seed(String name, String imageFilename) {
         this.displayName = name;
         this.imageFileName = imageFilename;
-
-        // Only load the image if a filename is provided
-        if (imageFilename != null) {
-            loadImage(imageFilename);
-        }
-    }
-
-    // Method to load the image
-    private void loadImage(String imageFilename) {
-        URL imgURL = getClass().getClassLoader().getResource(imageFilename);
-        if (imgURL != null) {
-            ImageIcon icon = new ImageIcon(imgURL);
-            this.img = icon.getImage();
-        } else {
-            System.err.println("Couldn't find file " + imageFilename);
-        }
     }
 
     // Public getters
@@ -61,8 +44,15 @@ public enum Seed {
         return displayName;
     }
 
+    /** Return the first frame of the image at its own size, or null if none */
     public Image getImage() {
-        return img;
+        SpriteCache.Sprite sprite = (imageFileName == null) ? null : SpriteCache.SHARED.getDecoded(imageFileName);
+        return (sprite == null) ? null : sprite.getFrame(0);
+    }
+
+    /** Return the frames of the image scaled to width and height, or null if none */
+    public SpriteCache.Sprite getSprite(int width, int height) {
+        return (imageFileName == null) ? null : SpriteCache.SHARED.get(imageFileName, width, height);
     }
 
     public String getImageFileName() {
@@ -75,7 +65,6 @@ public enum Seed {
     }
 
     public void setImageFileName(String imageFileName) {
-        this.imageFileName = imageFileName;
-        loadImage(imageFileName); // Reload the image whenever the filename changes
+        this.imageFileName = imageFileName; // Decoded on first use, then taken from the cache
     }
 }
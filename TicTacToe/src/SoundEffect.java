@@ -8,13 +8,6 @@
  * 3 - 5026231081 - Oryza Reynaleta Wibowo
  */
 
-import java.io.IOException;
-import java.net.URL;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.LineUnavailableException;
-import javax.sound.sampled.UnsupportedAudioFileException;
 /**
  * This enum encapsulates all the sound effects of a game, so as to separate the sound playing
  * codes from the game codes.
@@ -25,6 +18,9 @@ import javax.sound.sampled.UnsupportedAudioFileException;
  * 4. You can the static variable SoundEffect.volume to SoundEffect.Volume.MUTE
  *    to mute the sound.
  *
+ * The sounds are decoded once and played by the AudioMixer, on its single audio
+ * line: playing a sound again while it plays overlaps the two.
+ *
  * For Eclipse, place the audio file under "src", which will be copied into "bin".
  */
 public enum SoundEffect {
@@ -44,49 +40,37 @@ public enum SoundEffect {
 
     public static Volume volume = Volume.LOW;
 
-    /** Each sound effect has its own clip, loaded with its own sound file. */
-    private Clip clip;
+    /** Each sound effect has its own samples, decoded from its own sound file. */
+    private final short[] samples;
 
     /** Private Constructor to construct each element of the enum with its own sound file. */
     private SoundEffect(String soundFileName) {
-        try {
-            // Use URL (instead of File) to read from disk and JAR.
-            URL url = this.getClass().getClassLoader().getResource(soundFileName);
-            // Set up an audio input stream piped from the sound file.
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(url);
-            // Get a clip resource.
-            clip = AudioSystem.getClip();
-            // Open audio clip and load samples from the audio input stream.
-            clip.open(audioInputStream);
-        } catch (UnsupportedAudioFileException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
-        } catch (LineUnavailableException e) {
-            e.printStackTrace();
-        }
+        // Read from disk or JAR, and kept in the mixer's cache
+        samples = AudioMixer.getInstance().load(soundFileName);
     }
 
-    /** Play or Re-play the sound effect from the beginning, by rewinding. */
+    /** Play the sound effect from the beginning, at the current volume. */
     public void play() {
         if (volume != Volume.MUTE) {
-            if (clip.isRunning())
-                clip.stop();   // Stop the player if it is still running
-            clip.setFramePosition(0); // rewind to the beginning
-            clip.start();     // Start playing
+            AudioMixer.getInstance().play(samples, gainOf(volume));
         }
     }
 
     public void stop() {
-        if (clip != null) {
-            clip.stop();
-        }
+        AudioMixer.getInstance().stop(samples);
     }
 
     public static void preloadAll() {
-        for (SoundEffect sound : values()) {
-            sound.play();  // Just initialize the clip
-            sound.stop();  // Immediately stop after playing to make sure it's loaded
+        values(); // calls the constructor for all the elements, which decodes them
+    }
+
+    /** Return the gain (0 to 1) the samples are played at for the volume */
+    public static float gainOf(Volume volume) {
+        switch (volume) {
+            case LOW:    return 0.5f;
+            case MEDIUM: return 0.75f;
+            case HIGH:   return 1.0f;
+            default:     return 0.0f;
         }
     }
 
@@ -0,0 +1,295 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import org.w3c.dom.Node;
+
+/**
+ * Cache of the character images, decoded once and scaled once per size, so that
+ * painting a seed is a plain copy of pixels.
+ *
+ * An image file is decoded into all its frames: each frame of an animated GIF is
+ * composed onto the previous ones as the GIF says (offsets and disposal). A Sprite
+ * is the frames of one file scaled to one size, in images compatible with the
+ * screen, which Java2D keeps in video memory once they are drawn often. Both the
+ * decoded files and the sprites are kept in least recently used order, and the
+ * oldest are dropped when there are more than the capacity.
+ */
+public class SpriteCache {
+    /** Sprites kept by default */
+    public static final int DEFAULT_CAPACITY = 16;
+    // Shortest frame time: GIFs saying 0 or 10 ms are shown at browser speed
+    private static final int MIN_DELAY = 20;
+    private static final int DEFAULT_DELAY = 100;
+
+    /** The cache shared by all the boards */
+    public static final SpriteCache SHARED = new SpriteCache(DEFAULT_CAPACITY);
+
+    private final Map<String, Sprite> decoded;
+    private final Map<String, Sprite> scaled;
+
+    /** Constructor for a cache keeping up to capacity sprites */
+    public SpriteCache(final int capacity) {
+        decoded = new LinkedHashMap<String, Sprite>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Sprite> eldest) {
+                return size() > capacity;
+            }
+        };
+        scaled = new LinkedHashMap<String, Sprite>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Sprite> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** The frames of an image at one size, and how long each is shown */
+    public static final class Sprite {
+        private final BufferedImage[] frames;
+        private final int[] ends;  // time each frame ends, from the start of the loop (ms)
+
+        private Sprite(BufferedImage[] frames, int[] delays) {
+            this.frames = frames;
+            ends = new int[delays.length];
+            int time = 0;
+            for (int i = 0; i < delays.length; ++i) {
+                time += delays[i];
+                ends[i] = time;
+            }
+        }
+
+        /** Return the number of frames, 1 for a still image */
+        public int getFrameCount() {
+            return frames.length;
+        }
+
+        /** Return the frame at index */
+        public BufferedImage getFrame(int index) {
+            return frames[index];
+        }
+
+        public int getWidth() {
+            return frames[0].getWidth();
+        }
+
+        public int getHeight() {
+            return frames[0].getHeight();
+        }
+
+        /** Return the index of the frame shown at the given time (ms); all the
+         * sprites of an image show the same frame at the same time */
+        public int frameAt(long time) {
+            if (frames.length == 1) {
+                return 0;
+            }
+            int t = (int) (time % ends[ends.length - 1]);
+            int i = 0;
+            while (ends[i] <= t) ++i;
+            return i;
+        }
+
+        /** Return how long after the given time (ms) the next frame is shown, or -1
+         * for a still image */
+        public int untilNextFrame(long time) {
+            if (frames.length == 1) {
+                return -1;
+            }
+            int t = (int) (time % ends[ends.length - 1]);
+            return ends[frameAt(time)] - t;
+        }
+    }
+
+    /** Return the sprite of the image file (a classpath resource) scaled to width
+     * and height, or null if the file can't be read */
+    public synchronized Sprite get(String fileName, int width, int height) {
+        String key = fileName + "@" + width + "x" + height;
+        Sprite sprite = scaled.get(key);
+        if (sprite == null) {
+            Sprite source = getDecoded(fileName);
+            if (source == null) {
+                return null;
+            }
+            sprite = scale(source, width, height);
+            scaled.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    /** Return the sprite of the image file at its own size, or null if the file
+     * can't be read */
+    public synchronized Sprite getDecoded(String fileName) {
+        Sprite sprite = decoded.get(fileName);
+        if (sprite == null) {
+            URL url = SpriteCache.class.getClassLoader().getResource(fileName);
+            if (url == null) {
+                System.err.println("Couldn't find file " + fileName);
+                return null;
+            }
+            try {
+                sprite = decode(url);
+            } catch (IOException e) {
+                System.err.println("Couldn't read " + fileName + ": " + e.getMessage());
+                return null;
+            }
+            decoded.put(fileName, sprite);
+        }
+        return sprite;
+    }
+
+    /** Remove every sprite */
+    public synchronized void clear() {
+        decoded.clear();
+        scaled.clear();
+    }
+
+    // Decode all the frames of the image, composing the frames of a GIF
+    private static Sprite decode(URL url) throws IOException {
+        try (InputStream in = url.openStream();
+             ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                throw new IOException("unknown image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, false);
+                if (!"gif".equalsIgnoreCase(reader.getFormatName())) {
+                    return new Sprite(new BufferedImage[]{toArgb(reader.read(0))}, new int[]{DEFAULT_DELAY});
+                }
+                return decodeGif(reader);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static Sprite decodeGif(ImageReader reader) throws IOException {
+        int count = reader.getNumImages(true);
+        int width = 0, height = 0;
+        IIOMetadata streamData = reader.getStreamMetadata();
+        if (streamData != null) {
+            Node screen = child(streamData.getAsTree("javax_imageio_gif_stream_1.0"), "LogicalScreenDescriptor");
+            width = attribute(screen, "logicalScreenWidth", 0);
+            height = attribute(screen, "logicalScreenHeight", 0);
+        }
+        if (width <= 0 || height <= 0) {
+            width = reader.getWidth(0);
+            height = reader.getHeight(0);
+        }
+
+        List<BufferedImage> frames = new ArrayList<>();
+        int[] delays = new int[count];
+        BufferedImage canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < count; ++i) {
+            BufferedImage image = reader.read(i);
+            Node tree = reader.getImageMetadata(i).getAsTree("javax_imageio_gif_image_1.0");
+            Node descriptor = child(tree, "ImageDescriptor");
+            Node control = child(tree, "GraphicControlExtension");
+            int x = attribute(descriptor, "imageLeftPosition", 0);
+            int y = attribute(descriptor, "imageTopPosition", 0);
+            String disposal = (control == null) ? "none" : control.getAttributes().getNamedItem("disposalMethod").getNodeValue();
+            int delay = attribute(control, "delayTime", 0) * 10;
+            delays[i] = (delay < MIN_DELAY) ? DEFAULT_DELAY : delay;
+
+            BufferedImage previous = "restoreToPrevious".equals(disposal) ? copy(canvas) : null;
+            Graphics2D g = canvas.createGraphics();
+            g.drawImage(image, x, y, null);
+            g.dispose();
+            frames.add(copy(canvas));
+            // Prepare the canvas for the next frame
+            if ("restoreToBackgroundColor".equals(disposal)) {
+                g = canvas.createGraphics();
+                g.setComposite(AlphaComposite.Clear);
+                g.fillRect(x, y, image.getWidth(), image.getHeight());
+                g.dispose();
+            } else if (previous != null) {
+                canvas = previous;
+            }
+        }
+        return new Sprite(frames.toArray(new BufferedImage[0]), delays);
+    }
+
+    // Scale every frame once, with good quality, into images compatible with the screen
+    private static Sprite scale(Sprite source, int width, int height) {
+        BufferedImage[] frames = new BufferedImage[source.frames.length];
+        int[] delays = new int[frames.length];
+        for (int i = 0; i < frames.length; ++i) {
+            frames[i] = createImage(width, height);
+            Graphics2D g = frames[i].createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source.frames[i], 0, 0, width, height, null);
+            g.dispose();
+            delays[i] = source.ends[i] - ((i == 0) ? 0 : source.ends[i - 1]);
+        }
+        return new Sprite(frames, delays);
+    }
+
+    // Return a translucent image in the screen's own format, when there is a screen
+    private static BufferedImage createImage(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    private static BufferedImage toArgb(BufferedImage image) {
+        BufferedImage argb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = argb.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return argb;
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        image.copyData(copy.getRaster());
+        return copy;
+    }
+
+    // Metadata tree helpers
+    private static Node child(Node node, String name) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (name.equals(child.getNodeName())) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static int attribute(Node node, String name, int defaultValue) {
+        if (node == null) {
+            return defaultValue;
+        }
+        Node attribute = node.getAttributes().getNamedItem(name);
+        return (attribute == null) ? defaultValue : Integer.parseInt(attribute.getNodeValue());
+    }
+}
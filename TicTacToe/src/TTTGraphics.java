@@ -13,6 +13,9 @@ import java.awt.event.*;
 import javax.swing.*;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class TTTGraphics extends JFrame {
     private static final long serialVersionUID = 1L;
@@ -44,10 +47,24 @@ public class TTTGraphics extends JFrame {
 
     private Seed currentPlayer;
     private Seed[][] board;
+    private ConnectFour game;  // Rules of the game, on bitboards, kept in step with board
+
+    // Computer opponent, playing Yellow; searched on its own thread
+    private final ExecutorService aiExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Connect Four AI");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConnectFourAI ai = new ConnectFourAI(ConnectFourAI.DEFAULT_TIME_LIMIT);
+    private boolean aiEnabled = false;
+    private Future<?> aiSearch;  // AI move being computed, null if none
+    private int aiGeneration;    // Bumped on every AI move and cancel: stale results are dropped
 
     private GamePanel gamePanel;
+    private ConnectFourRenderer renderer;  // Draws the board in offscreen layers
     private JLabel statusBar;
     private JButton resetButton;
+    private JButton aiButton;
     private JButton exitButton;
 
     private int redScore = 0;
@@ -59,10 +76,12 @@ public class TTTGraphics extends JFrame {
     private int timeRemaining;
 
     public TTTGraphics() {
+        ai.setThreads(Runtime.getRuntime().availableProcessors());
         initGame();
 
         gamePanel = new GamePanel();
         gamePanel.setPreferredSize(new Dimension(BOARD_WIDTH, BOARD_HEIGHT));
+        renderer = new ConnectFourRenderer(gamePanel);
 
         gamePanel.addMouseListener(new MouseAdapter() {
             @Override
@@ -71,22 +90,12 @@ public class TTTGraphics extends JFrame {
                 int colSelected = mouseX / CELL_SIZE;
 
                 if (currentState == State.PLAYING) {
-                    if (colSelected >= 0 && colSelected < COLS) {
-                        for (int row = ROWS - 1; row >= 0; row--) {
-                            if (board[row][colSelected] == Seed.NO_SEED) {
-                                board[row][colSelected] = currentPlayer;
-                                currentState = stepGame(currentPlayer, row, colSelected);
-                                currentPlayer = (currentPlayer == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
-                                SoundEffect.WUP.play();
-                                resetTimer();
-                                break;
-                            }
-                        }
+                    if (colSelected >= 0 && colSelected < COLS && !isAITurn() && game.canPlay(colSelected)) {
+                        dropDisc(colSelected);
                     }
                 } else {
                     newGame();
                 }
-                repaint();
             }
         });
 
@@ -110,6 +119,16 @@ public class TTTGraphics extends JFrame {
         resetButton.setForeground(COLOR_GRID);
         resetButton.addActionListener(e -> newGame());
 
+        aiButton = new JButton("Play vs Computer");
+        aiButton.setFont(FONT_STATUS);
+        aiButton.setBackground(Color.WHITE);
+        aiButton.setForeground(COLOR_GRID);
+        aiButton.addActionListener(e -> {
+            aiEnabled = !aiEnabled;
+            aiButton.setText(aiEnabled ? "Play vs Human" : "Play vs Computer");
+            newGame();
+        });
+
         exitButton = new JButton("Exit Game");
         exitButton.setFont(FONT_STATUS);
         exitButton.setBackground(Color.WHITE);
@@ -120,6 +139,7 @@ public class TTTGraphics extends JFrame {
         bottomPanel.add(statusBar, BorderLayout.CENTER);
         JPanel buttonPanel = new JPanel();
         buttonPanel.add(resetButton);
+        buttonPanel.add(aiButton);
         buttonPanel.add(exitButton);
         bottomPanel.add(buttonPanel, BorderLayout.SOUTH);
         bottomPanel.setBackground(COLOR_BG);
@@ -145,9 +165,12 @@ public class TTTGraphics extends JFrame {
 
     public void initGame() {
         board = new Seed[ROWS][COLS];
+        game = new ConnectFour();
     }
 
     public void newGame() {
+        cancelAIMove();
+        game.clear();
         for (int row = 0; row < ROWS; ++row) {
             for (int col = 0; col < COLS; ++col) {
                 board[row][col] = Seed.NO_SEED;
@@ -156,10 +179,10 @@ public class TTTGraphics extends JFrame {
         currentPlayer = Seed.CROSS;
         currentState = State.PLAYING;
         highlightCells = null;
-        statusBar.setText("Red's Turn");
+        renderer.clear();
+        updateStatus();
         updateScores();
         resetTimer();
-        repaint();
     }
     public void showGameOverPopup() {
         // Stop any background music if playing
@@ -198,6 +221,7 @@ public class TTTGraphics extends JFrame {
         playAgainButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                cancelAIMove();
                 // Dispose of the parent frame before navigating
                 Window parentWindow = SwingUtilities.getWindowAncestor(statusBar);
                 if (parentWindow instanceof JFrame) {
@@ -235,72 +259,103 @@ public class TTTGraphics extends JFrame {
         );
     }
 
+    // Drop a disc of the current player into the column, and hand the turn over.
+    //  The game goes on at once; the end of the game is shown once the disc has landed
+    private void dropDisc(int col) {
+        int row = ROWS - 1 - game.getHeight(col);
+        Seed player = currentPlayer;
+        currentState = stepGame(player, row, col);
+        currentPlayer = (currentPlayer == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+        SoundEffect.WUP.play();
+        resetTimer();
+        if (currentState == State.PLAYING) {
+            updateStatus();
+            renderer.drop(row, col, playerOf(player), null);
+        } else {
+            final int[] line = highlightCells;
+            renderer.drop(row, col, playerOf(player), () -> {
+                renderer.setHighlight(line);
+                // After the landed disc has been painted
+                SwingUtilities.invokeLater(this::showGameOverPopup);
+            });
+        }
+        if (isAITurn()) {
+            startAIMove();
+        }
+    }
+
+    // Show whose turn it is (the end of the game is shown by showGameOverPopup())
+    private void updateStatus() {
+        if (currentState == State.PLAYING) {
+            statusBar.setText((currentPlayer == Seed.CROSS) ? "Red's Turn" : "Yellow's Turn");
+        }
+    }
+
     public State stepGame(Seed player, int selectedRow, int selectedCol) {
         board[selectedRow][selectedCol] = player;
 
-        if (hasWon(player, selectedRow, selectedCol)) {
+        // Only the lines through the new disc can have been completed
+        if (game.play(selectedCol, playerOf(player))) {
+            highlightCells = game.winningLine(playerOf(player));
             if (player == Seed.CROSS) redScore++;
             else yellowScore++;
             currentState = (player == Seed.CROSS) ? State.CROSS_WON : State.NOUGHT_WON;
-            showGameOverPopup();  // Show the game over popup
-        } else {
-            for (int row = 0; row < ROWS; ++row) {
-                for (int col = 0; col < COLS; ++col) {
-                    if (board[row][col] == Seed.NO_SEED) {
-                        currentState = State.PLAYING;
-                        return currentState;
-                    }
-                }
-            }
+        } else if (game.isFull()) {
             currentState = State.DRAW;
-            showGameOverPopup();  // Show the game over popup if it's a draw
+        } else {
+            currentState = State.PLAYING;
         }
 
         return currentState;
     }
 
-    public boolean hasWon(Seed theSeed, int rowSelected, int colSelected) {
-        highlightCells = checkHighlightDirection(theSeed, rowSelected, colSelected);
-        return highlightCells != null;
+    // Player number of the seed in the ConnectFour engine
+    private static int playerOf(Seed seed) {
+        return (seed == Seed.CROSS) ? 0 : 1;
     }
 
-    private int[] checkHighlightDirection(Seed theSeed, int row, int col) {
-        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}}; // {dx, dy} pairs
-        for (int[] direction : directions) {
-            int count = 1;
-            int[] cells = new int[8];
-            cells[0] = row;
-            cells[1] = col;
-
-            // Cek ke satu arah
-            for (int i = 1; i < 4; i++) {
-                int r = row + i * direction[0];
-                int c = col + i * direction[1];
-                if (r >= 0 && r < ROWS && c >= 0 && c < COLS && board[r][c] == theSeed) {
-                    cells[count * 2] = r;
-                    cells[count * 2 + 1] = c;
-                    count++;
-                } else {
-                    break;
-                }
-            }
+    // Return true if the computer is to move
+    private boolean isAITurn() {
+        return aiEnabled && currentState == State.PLAYING && currentPlayer == Seed.NOUGHT;
+    }
 
-            // Cek ke arah berlawanan
-            for (int i = 1; i < 4; i++) {
-                int r = row - i * direction[0];
-                int c = col - i * direction[1];
-                if (r >= 0 && r < ROWS && c >= 0 && c < COLS && board[r][c] == theSeed) {
-                    cells[count * 2] = r;
-                    cells[count * 2 + 1] = c;
-                    count++;
-                } else {
-                    break;
-                }
+    // Compute the computer's move on the AI thread, against a copy of the game,
+    //  and play it on the event dispatch thread once found
+    private void startAIMove() {
+        final int generation = ++aiGeneration;
+        final ConnectFour snapshot = new ConnectFour(game);
+        final int player = playerOf(currentPlayer);
+        aiSearch = aiExecutor.submit(() -> {
+            int move = -1;
+            try {
+                move = ai.bestMove(snapshot, player);
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // Give the turn back rather than hang the game
             }
+            final int col = move;
+            SwingUtilities.invokeLater(() -> {
+                if (generation == aiGeneration && isAITurn()) { // Not cancelled meanwhile
+                    aiSearch = null;
+                    if (col >= 0) {
+                        dropDisc(col);
+                    } else {
+                        // As when the turn times out
+                        currentPlayer = Seed.CROSS;
+                        updateStatus();
+                        resetTimer();
+                    }
+                }
+            });
+        });
+    }
 
-            if (count >= 4) return cells; // Jika ditemukan 4 berturut-turut
+    // Stop the AI move being computed, if any: its result will be ignored
+    private void cancelAIMove() {
+        if (aiSearch != null) {
+            aiSearch.cancel(true);
+            aiSearch = null;
         }
-        return null; // Tidak ditemukan 4 berturut-turut
+        aiGeneration++;
     }
 
     private void updateScores() {
@@ -323,65 +378,29 @@ public class TTTGraphics extends JFrame {
                     turnTimer.cancel();
                     SwingUtilities.invokeLater(() -> {
                         currentPlayer = (currentPlayer == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+                        updateStatus();
                         resetTimer();
-                        repaint();
+                        if (isAITurn()) {
+                            startAIMove();
+                        }
                     });
                 }
             }
         }, 1000, 1000);
     }
 
+    // Paints the board through the renderer, which keeps it in offscreen layers
     class GamePanel extends JPanel {
         private static final long serialVersionUID = 1L;
 
+        GamePanel() {
+            setBackground(COLOR_BG);
+        }
+
         @Override
         public void paintComponent(Graphics g) {
             super.paintComponent(g);
-            setBackground(COLOR_BG);
-
-            g.setColor(COLOR_GRID);
-            for (int row = 1; row < ROWS; ++row) {
-                g.fillRoundRect(0, CELL_SIZE * row - GRID_WIDTH_HALF,
-                        BOARD_WIDTH - 1, GRID_WIDTH, GRID_WIDTH, GRID_WIDTH);
-            }
-            for (int col = 1; col < COLS; ++col) {
-                g.fillRoundRect(CELL_SIZE * col - GRID_WIDTH_HALF, 0,
-                        GRID_WIDTH, BOARD_HEIGHT - 1, GRID_WIDTH, GRID_WIDTH);
-            }
-
-            Graphics2D g2d = (Graphics2D) g;
-            for (int row = 0; row < ROWS; ++row) {
-                for (int col = 0; col < COLS; ++col) {
-                    int x1 = col * CELL_SIZE + CELL_SIZE / 8;
-                    int y1 = row * CELL_SIZE + CELL_SIZE / 8;
-                    if (board[row][col] == Seed.CROSS) {
-                        g2d.setColor(COLOR_CROSS);
-                        g2d.fillOval(x1, y1, CELL_SIZE - CELL_SIZE / 4, CELL_SIZE - CELL_SIZE / 4);
-                    } else if (board[row][col] == Seed.NOUGHT) {
-                        g2d.setColor(COLOR_NOUGHT);
-                        g2d.fillOval(x1, y1, CELL_SIZE - CELL_SIZE / 4, CELL_SIZE - CELL_SIZE / 4);
-                    }
-                }
-            }
-
-            if (highlightCells != null) {
-                g.setColor(Color.GREEN);
-                for (int i = 0; i < highlightCells.length; i += 2) {
-                    int x1 = highlightCells[i + 1] * CELL_SIZE + CELL_SIZE / 8;
-                    int y1 = highlightCells[i] * CELL_SIZE + CELL_SIZE / 8;
-                    g.fillOval(x1, y1, CELL_SIZE - CELL_SIZE / 4, CELL_SIZE - CELL_SIZE / 4);
-                }
-            }
-
-            if (currentState == State.PLAYING) {
-                statusBar.setText((currentPlayer == Seed.CROSS) ? "Red's Turn" : "Yellow's Turn");
-            } else if (currentState == State.DRAW) {
-                statusBar.setText("It's a Draw! Click Restart to play again.");
-            } else if (currentState == State.CROSS_WON) {
-                statusBar.setText("Red Won! Click Restart to play again.");
-            } else if (currentState == State.NOUGHT_WON) {
-                statusBar.setText("Yellow Won! Click Restart to play again.");
-            }
+            renderer.paint(g);
         }
     }
 
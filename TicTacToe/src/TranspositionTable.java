@@ -0,0 +1,134 @@
+/**
+ * ES234317-Algorithm and Data Structures
+ * Semester Ganjil, 2024/2025
+ * Group Capstone Project
+ * Group #7
+ * 1 - 5026231011 - William Bryan Pangestu
+ * 2 - 5026231022 - Tiffany Catherine Prasetya
+ * 3 - 5026231081 - Oryza Reynaleta Wibowo
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Transposition table for the 3x3 Tic-Tac-Toe search.
+ *
+ * A position is the bitboard of the player to move and the bitboard of the other
+ * player. It is first brought to a canonical form: the smallest of its 8 images by
+ * the rotations and reflections of the board. The canonical key (mine << 9 | theirs)
+ * has only 18 bits, so the table is indexed directly by it and never collides.
+ *
+ * Each entry packs into one long the score, its bound (EXACT, LOWER or UPPER), the
+ * depth it was searched to and the best move, in canonical cell numbers. Entries
+ * are read and written atomically, so one table is shared by all the games and by
+ * AI players running on different threads.
+ */
+public class TranspositionTable {
+    // Bound types of a stored score; 0 marks an empty entry
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;  // the score is at least the stored one
+    public static final int UPPER = 3;  // the score is at most the stored one
+    public static final int NO_MOVE = 15;
+
+    /** The table shared by every AI player */
+    public static final TranspositionTable SHARED = new TranspositionTable();
+
+    private static final int CELLS = Board.ROWS * Board.COLS;
+    private static final int SYMMETRIES = 8;
+    private static final int KEY_MASK = (1 << (2 * CELLS)) - 1;
+    // Image of each cell, and of each 9-bit mask, under each symmetry
+    private static final int[][] CELL_IMAGE = new int[SYMMETRIES][CELLS];
+    private static final int[][] CELL_SOURCE = new int[SYMMETRIES][CELLS];
+    private static final int[][] MASK_IMAGE = new int[SYMMETRIES][1 << CELLS];
+
+    static {
+        for (int sym = 0; sym < SYMMETRIES; ++sym) {
+            for (int cell = 0; cell < CELLS; ++cell) {
+                int row = cell / 3, col = cell % 3;
+                // Rotate 0, 1, 2 or 3 quarter turns, then mirror for the last 4
+                for (int turn = 0; turn < (sym & 3); ++turn) {
+                    int tmp = row;
+                    row = col;
+                    col = 2 - tmp;
+                }
+                if (sym >= 4) {
+                    col = 2 - col;
+                }
+                CELL_IMAGE[sym][cell] = row * 3 + col;
+                CELL_SOURCE[sym][row * 3 + col] = cell;
+            }
+            for (int mask = 0; mask < (1 << CELLS); ++mask) {
+                int image = 0;
+                for (int cell = 0; cell < CELLS; ++cell) {
+                    if ((mask & (1 << cell)) != 0) {
+                        image |= 1 << CELL_IMAGE[sym][cell];
+                    }
+                }
+                MASK_IMAGE[sym][mask] = image;
+            }
+        }
+    }
+
+    private final AtomicLongArray entries = new AtomicLongArray(1 << (2 * CELLS));
+
+    /**
+     * Return the canonical form of the position: the key of its smallest image in
+     * the low 18 bits, and the symmetry that produced it above them.
+     */
+    public static int canonicalize(int mine, int theirs) {
+        int best = Integer.MAX_VALUE;
+        for (int sym = 0; sym < SYMMETRIES; ++sym) {
+            int key = (MASK_IMAGE[sym][mine] << CELLS) | MASK_IMAGE[sym][theirs];
+            if (key < (best & KEY_MASK)) {
+                best = (sym << (2 * CELLS)) | key;
+            }
+        }
+        return best;
+    }
+
+    /** Return the canonical cell number of a board cell, for the given canonical form */
+    public static int toCanonical(int canonical, int cell) {
+        return CELL_IMAGE[canonical >>> (2 * CELLS)][cell];
+    }
+
+    /** Return the board cell of a canonical cell number, for the given canonical form */
+    public static int fromCanonical(int canonical, int cell) {
+        return CELL_SOURCE[canonical >>> (2 * CELLS)][cell];
+    }
+
+    /** Return the entry of the canonical position, 0 if there is none */
+    public long probe(int canonical) {
+        return entries.get(canonical & KEY_MASK);
+    }
+
+    /** Store the result of a search of the canonical position (move in canonical cells) */
+    public void store(int canonical, int depth, int score, int bound, int move) {
+        long entry = (score & 0xFFFFFFFFL) | ((long) bound << 32) | ((long) move << 34)
+                | ((long) depth << 38);
+        entries.set(canonical & KEY_MASK, entry);
+    }
+
+    /** Remove every entry */
+    public void clear() {
+        for (int i = 0; i < entries.length(); ++i) {
+            entries.set(i, 0);
+        }
+    }
+
+    // Fields of an entry
+    public static int scoreOf(long entry) {
+        return (int) entry;
+    }
+
+    public static int boundOf(long entry) {
+        return (int) (entry >>> 32) & 3;
+    }
+
+    public static int moveOf(long entry) {
+        return (int) (entry >>> 34) & 15;
+    }
+
+    public static int depthOf(long entry) {
+        return (int) (entry >>> 38) & 15;
+    }
+}